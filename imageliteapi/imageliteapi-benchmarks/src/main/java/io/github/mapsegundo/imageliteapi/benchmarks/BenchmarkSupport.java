@@ -0,0 +1,68 @@
+package io.github.mapsegundo.imageliteapi.benchmarks;
+
+import io.github.mapsegundo.imageliteapi.ImageliteapiApplication;
+import io.github.mapsegundo.imageliteapi.application.jwt.JwtKeys;
+import io.github.mapsegundo.imageliteapi.application.jwt.JwtProperties;
+import io.github.mapsegundo.imageliteapi.application.jwt.JwtService;
+import io.github.mapsegundo.imageliteapi.domain.entity.User;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+/**
+ * Utilitários compartilhados pelos benchmarks.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Inicia a aplicação sem servidor web, com um banco H2 em memória e armazenamento temporário.
+     * As configurações são passadas como argumentos para que prevaleçam sobre o application.yml.
+     *
+     * @param name nome do banco em memória, distinto para cada benchmark
+     * @return o contexto da aplicação, que deve ser fechado ao final
+     */
+    static ConfigurableApplicationContext startApplication(String name) {
+        Path storage;
+        try {
+            storage = Files.createTempDirectory("imagelite-benchmark-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new SpringApplicationBuilder(ImageliteapiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:" + name,
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database=H2",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--imagelite.storage.location=" + storage);
+    }
+
+    /**
+     * @return um serviço de tokens com uma chave fixa, sem depender do contexto da aplicação
+     */
+    static JwtService jwtService() {
+        JwtProperties properties = new JwtProperties();
+        properties.getKeys().put("benchmark", Base64.getEncoder().encodeToString(new byte[32]));
+        return new JwtService(new JwtKeys(properties), properties);
+    }
+
+    static User user() {
+        return User.builder()
+                .id("5d0f6f7e-3c1b-4d55-9a36-3a4f3f0f2b11")
+                .name("Benchmark")
+                .email("benchmark@imagelite.dev")
+                .build();
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.mapsegundo.imageliteapi.benchmarks;
+
+import io.github.mapsegundo.imageliteapi.ImageliteapiApplication;
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import io.github.mapsegundo.imageliteapi.domain.service.ImageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão de downloads simultâneos de uma imagem grande por clientes lentos, com as requisições atendidas pelo
+ * pool de threads do Tomcat e por threads virtuais. Com threads de plataforma, cada download lento ocupa uma
+ * thread do pool até terminar e os demais clientes aguardam na fila; com threads virtuais todos são atendidos
+ * ao mesmo tempo. Cada operação é uma rodada completa de downloads, então o resultado é o tempo da rodada.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DownloadThroughputBenchmark {
+
+    private static final int CLIENTS = 50;
+    private static final int TOMCAT_THREADS = 10;
+    private static final int IMAGE_SIDE = 1024;
+    private static final int CHUNK_SIZE = 64 * 1024;
+    /**
+     * Velocidade de leitura de cada cliente, em bytes por segundo.
+     */
+    private static final long CLIENT_RATE = 512L * 1024;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private byte[] content;
+    private int port;
+    private String path;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        content = noiseImage();
+        Path storage = Files.createTempDirectory("imagelite-benchmark-");
+        context = new SpringApplicationBuilder(ImageliteapiApplication.class, SocketBufferConfig.class)
+                .run(
+                        "--server.port=0",
+                        "--management.server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:download-throughput",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database=H2",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--imagelite.storage.location=" + storage,
+                        "--imagelite.cache.content.max-entry-size=0",
+                        // Todos os clientes saem do mesmo endereço
+                        "--imagelite.rate-limit.enabled=false");
+
+        Image image = context.getBean(ImageService.class)
+                .save(Image.builder().name("benchmark").build(), new ByteArrayInputStream(content));
+        port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        path = "/v1/images/" + image.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * @return a quantidade de bytes recebida pelos clientes
+     */
+    @Benchmark
+    public long concurrentSlowDownloads() throws Exception {
+        List<Future<Long>> downloads = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                downloads.add(clients.submit(() -> slowDownload(port, path)));
+            }
+        }
+        long bytes = 0;
+        for (Future<Long> download : downloads) {
+            if (download.get() != content.length) {
+                throw new IllegalStateException("Incomplete download: " + download.get() + " bytes");
+            }
+            bytes += download.get();
+        }
+        return bytes;
+    }
+
+    /**
+     * Baixa a imagem lendo no máximo {@link #CLIENT_RATE} bytes por segundo, como um cliente em uma rede lenta.
+     * O buffer de recepção pequeno faz com que o servidor fique bloqueado na escrita, como aconteceria
+     * com um cliente remoto, em vez de entregar o conteúdo de uma vez aos buffers da interface local.
+     *
+     * @return a quantidade de bytes do corpo da resposta
+     */
+    private static long slowDownload(int port, String path) throws IOException, InterruptedException {
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(CHUNK_SIZE);
+            socket.connect(new InetSocketAddress("localhost", port));
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            InputStream in = new BufferedInputStream(socket.getInputStream(), CHUNK_SIZE);
+            String status = readLine(in);
+            if (!status.startsWith("HTTP/1.1 200")) {
+                throw new IllegalStateException("Unexpected response: " + status);
+            }
+            while (!readLine(in).isEmpty()) {
+                // Ignora os cabeçalhos da resposta
+            }
+
+            long read = 0;
+            byte[] buffer = new byte[CHUNK_SIZE];
+            long start = System.nanoTime();
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                read += n;
+                long expectedNanos = read * 1_000_000_000L / CLIENT_RATE;
+                long aheadMillis = (expectedNanos - (System.nanoTime() - start)) / 1_000_000;
+                if (aheadMillis > 0) {
+                    Thread.sleep(aheadMillis);
+                }
+            }
+            return read;
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * PNG de ruído, que não é comprimido, para que o download tenha o tamanho de uma foto grande.
+     */
+    private static byte[] noiseImage() throws IOException {
+        BufferedImage image = new BufferedImage(IMAGE_SIDE, IMAGE_SIDE, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(1);
+        for (int y = 0; y < IMAGE_SIDE; y++) {
+            for (int x = 0; x < IMAGE_SIDE; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Limita o buffer de envio do Tomcat, que na interface local cresceria o bastante para guardar
+     * boa parte da imagem e liberar a thread antes de o cliente receber o conteúdo.
+     * Sem {@code @Configuration}, para não ser encontrada pela varredura de componentes dos outros benchmarks.
+     */
+    static class SocketBufferConfig {
+        @Bean
+        TomcatConnectorCustomizer socketBufferCustomizer() {
+            return connector -> connector.setProperty("socket.txBufSize", String.valueOf(CHUNK_SIZE));
+        }
+    }
+}
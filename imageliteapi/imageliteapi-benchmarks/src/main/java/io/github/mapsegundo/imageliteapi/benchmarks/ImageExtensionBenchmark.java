@@ -0,0 +1,52 @@
+package io.github.mapsegundo.imageliteapi.benchmarks;
+
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Identificação do formato pelo tipo de conteúdo do envio e pelo nome informado no filtro da pesquisa.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageExtensionBenchmark {
+
+    /**
+     * O último valor não corresponde a nenhum formato e percorre todos eles.
+     */
+    @Param({"png", "jpeg", "webp"})
+    public String name;
+
+    private MediaType mediaType;
+
+    @Setup
+    public void setup() {
+        mediaType = MediaType.parseMediaType("image/" + name);
+    }
+
+    @Benchmark
+    public ImageExtension valueOf() {
+        return ImageExtension.valueOf(mediaType);
+    }
+
+    @Benchmark
+    public ImageExtension ofName() {
+        return ImageExtension.ofName(name);
+    }
+}
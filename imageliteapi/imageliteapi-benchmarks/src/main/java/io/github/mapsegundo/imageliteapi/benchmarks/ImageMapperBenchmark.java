@@ -0,0 +1,67 @@
+package io.github.mapsegundo.imageliteapi.benchmarks;
+
+import io.github.mapsegundo.imageliteapi.application.images.ImageDTO;
+import io.github.mapsegundo.imageliteapi.application.images.ImageMapper;
+import io.github.mapsegundo.imageliteapi.domain.ImageSummary;
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões do {@link ImageMapper} feitas a cada envio e a cada imagem listada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageMapperBenchmark {
+
+    private ImageMapper mapper;
+    private List<String> tags;
+    private ImageSummary summary;
+
+    @Setup
+    public void setup() {
+        mapper = new ImageMapper();
+        tags = List.of(" Praia", "verão", "FÉRIAS ", "praia", "família", "2024");
+        summary = ImageSummary.builder()
+                .id("5d0f6f7e-3c1b-4d55-9a36-3a4f3f0f2b11")
+                .name("praia")
+                .extension(ImageExtension.JPEG)
+                .size(2_345_678L)
+                .width(1920)
+                .height(1080)
+                .processingStatus(ProcessingStatus.DONE)
+                .uploadDate(LocalDateTime.now())
+                .tags(List.of("praia", "verão", "férias"))
+                .build();
+    }
+
+    @Benchmark
+    public Image mapToImage() {
+        return mapper.mapToImage("praia", tags, null);
+    }
+
+    @Benchmark
+    public ImageDTO summaryToDTO() {
+        return mapper.summaryToDTO(summary,
+                "http://localhost:8080/v1/images/" + summary.getId(),
+                "http://localhost:8080/v1/images/" + summary.getId() + "/thumbnail");
+    }
+}
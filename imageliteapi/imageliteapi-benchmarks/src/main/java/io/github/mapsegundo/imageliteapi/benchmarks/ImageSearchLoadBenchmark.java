@@ -0,0 +1,139 @@
+package io.github.mapsegundo.imageliteapi.benchmarks;
+
+import io.github.mapsegundo.imageliteapi.domain.ImagePage;
+import io.github.mapsegundo.imageliteapi.domain.ImageSearch;
+import io.github.mapsegundo.imageliteapi.domain.TagCount;
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus;
+import io.github.mapsegundo.imageliteapi.domain.service.ImageService;
+import io.github.mapsegundo.imageliteapi.infra.repository.ImageRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de leitura sobre o {@link ImageService} com várias threads simultâneas, como na listagem de imagens:
+ * pesquisas por tag e por nome, a página seguinte pelo cursor, a contagem de tags e a consulta por id.
+ * Usa um H2 em memória populado com imagens já processadas; no H2 a busca textual é feita por LIKE.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ImageSearchLoadBenchmark {
+
+    private static final int IMAGES = 20_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int PAGE_SIZE = 20;
+    private static final List<String> TAGS = List.of("praia", "montanha", "cidade", "família", "viagem",
+            "natureza", "noite", "verão", "inverno", "comida", "festa", "esporte", "animais", "flores");
+
+    private ConfigurableApplicationContext context;
+    private ImageService imageService;
+    private List<String> ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkSupport.startApplication("search-load");
+        imageService = context.getBean(ImageService.class);
+        ids = seed(context.getBean(ImageRepository.class), context.getBean(TransactionTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ImagePage searchByTag() {
+        return imageService.search(ImageSearch.builder().tags(Set.of(randomTag())).build(), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ImagePage searchByTagAndExtension() {
+        return imageService.search(ImageSearch.builder()
+                .extension(ImageExtension.PNG)
+                .tags(new HashSet<>(List.of(randomTag(), randomTag())))
+                .build(), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ImagePage searchByText() {
+        return imageService.search(ImageSearch.builder().query(randomTag()).build(), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ImagePage nextPage() {
+        ImageSearch search = ImageSearch.builder().tags(Set.of(randomTag())).build();
+        ImagePage first = imageService.search(search, null, PAGE_SIZE);
+        return imageService.search(search, first.getNext(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<TagCount> countTags() {
+        return imageService.countTags(ImageSearch.builder().extension(ImageExtension.JPEG).build(), null, 10);
+    }
+
+    @Benchmark
+    public Optional<Image> getById() {
+        return imageService.getById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    private static String randomTag() {
+        return TAGS.get(ThreadLocalRandom.current().nextInt(TAGS.size()));
+    }
+
+    /**
+     * Grava as imagens diretamente pelo repositório, já processadas, sem conteúdo armazenado.
+     *
+     * @return os ids das imagens gravadas
+     */
+    private static List<String> seed(ImageRepository repository, TransactionTemplate transactionTemplate) {
+        SplittableRandom random = new SplittableRandom(42);
+        ImageExtension[] extensions = ImageExtension.values();
+        List<String> ids = new ArrayList<>(IMAGES);
+        for (int start = 0; start < IMAGES; start += BATCH_SIZE) {
+            List<Image> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = start; i < start + BATCH_SIZE; i++) {
+                batch.add(Image.builder()
+                        .name("imagem-" + TAGS.get(random.nextInt(TAGS.size())) + "-" + i)
+                        .extension(extensions[random.nextInt(extensions.length)])
+                        .size(100_000L + random.nextInt(5_000_000))
+                        .width(1920)
+                        .height(1080)
+                        .processingStatus(ProcessingStatus.DONE)
+                        .tags(new HashSet<>(List.of(TAGS.get(random.nextInt(TAGS.size())),
+                                TAGS.get(random.nextInt(TAGS.size())))))
+                        .build());
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    repository.saveAll(batch).forEach(image -> ids.add(image.getId())));
+        }
+        return ids;
+    }
+}
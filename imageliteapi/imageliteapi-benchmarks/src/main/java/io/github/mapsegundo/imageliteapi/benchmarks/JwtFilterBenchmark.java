@@ -0,0 +1,64 @@
+package io.github.mapsegundo.imageliteapi.benchmarks;
+
+import io.github.mapsegundo.imageliteapi.config.filter.JwtFilter;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processamento do {@link JwtFilter} em uma requisição, com e sem token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    private JwtFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        var jwtService = BenchmarkSupport.jwtService();
+        filter = new JwtFilter(jwtService, ObservationRegistry.NOOP);
+        authorization = "Bearer " + jwtService.generateToken(BenchmarkSupport.user()).getAccessToken();
+    }
+
+    @Benchmark
+    public void withToken(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/images");
+        request.addHeader("Authorization", authorization);
+        filter(request, blackhole);
+    }
+
+    @Benchmark
+    public void withoutToken(Blackhole blackhole) throws Exception {
+        filter(new MockHttpServletRequest("GET", "/v1/images"), blackhole);
+    }
+
+    private void filter(MockHttpServletRequest request, Blackhole blackhole) throws Exception {
+        FilterChain chain = (req, res) -> blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
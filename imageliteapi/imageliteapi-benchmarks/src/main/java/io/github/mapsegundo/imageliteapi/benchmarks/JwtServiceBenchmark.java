@@ -0,0 +1,51 @@
+package io.github.mapsegundo.imageliteapi.benchmarks;
+
+import io.github.mapsegundo.imageliteapi.application.jwt.JwtService;
+import io.github.mapsegundo.imageliteapi.application.jwt.TokenSubject;
+import io.github.mapsegundo.imageliteapi.domain.AccessToken;
+import io.github.mapsegundo.imageliteapi.domain.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração de tokens no login e validação em cada requisição autenticada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = BenchmarkSupport.jwtService();
+        user = BenchmarkSupport.user();
+        token = jwtService.generateToken(user).getAccessToken();
+    }
+
+    @Benchmark
+    public AccessToken generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public TokenSubject parseToken() {
+        return jwtService.parseToken(token);
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.mapsegundo.imageliteapi.benchmarks;
+
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.github.mapsegundo.imageliteapi.infra.repository.specs.ImageSpecs.extensionEqual;
+import static io.github.mapsegundo.imageliteapi.infra.repository.specs.ImageSpecs.hasTag;
+import static io.github.mapsegundo.imageliteapi.infra.repository.specs.ImageSpecs.nameLike;
+import static org.springframework.data.jpa.domain.Specification.where;
+
+/**
+ * Montagem da consulta da pesquisa a partir das specifications, feita antes de cada pesquisa.
+ * Mede apenas a construção dos critérios, sem executar a consulta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchSpecificationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkSupport.startApplication("specification");
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Image> tagsAndExtension() {
+        return build(where(extensionEqual(ImageExtension.PNG))
+                .and(hasTag("praia"))
+                .and(hasTag("verão")));
+    }
+
+    @Benchmark
+    public CriteriaQuery<Image> nameOrTag() {
+        return build(where(extensionEqual(ImageExtension.JPEG))
+                .and(Specification.anyOf(nameLike("praia"), hasTag("praia"))));
+    }
+
+    private CriteriaQuery<Image> build(Specification<Image> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Image> query = cb.createQuery(Image.class);
+        Root<Image> root = query.from(Image.class);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        return query.where(predicate);
+    }
+}
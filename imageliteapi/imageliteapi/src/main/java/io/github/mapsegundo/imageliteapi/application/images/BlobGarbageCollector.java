@@ -0,0 +1,135 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.config.CacheConfig;
+import io.github.mapsegundo.imageliteapi.domain.entity.ImageBlob;
+import io.github.mapsegundo.imageliteapi.domain.exception.StorageException;
+import io.github.mapsegundo.imageliteapi.infra.repository.ImageBlobRepository;
+import io.github.mapsegundo.imageliteapi.infra.storage.DerivativeCache;
+import io.github.mapsegundo.imageliteapi.infra.storage.TieredBlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remove os blobs que nenhuma imagem referencia há mais de {@code imagelite.gc.grace-period}: o conteúdo
+ * no armazenamento principal e no arquivo, as variantes derivadas e a cópia no cache de conteúdo.
+ * A exclusão de uma imagem apenas libera a referência, então a remoção fica fora das requisições e é feita
+ * em lotes. O prazo de carência mantém o conteúdo por um tempo, o que evita regravá-lo quando uma imagem
+ * igual é enviada logo depois.
+ */
+@Service
+@Slf4j
+public class BlobGarbageCollector {
+
+    private final ImageBlobRepository blobRepository;
+    private final TieredBlobStore blobStore;
+    private final DerivativeCache derivativeCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate discardTemplate;
+    private final Cache contentCache;
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final int batchSize;
+
+    public BlobGarbageCollector(ImageBlobRepository blobRepository,
+                                TieredBlobStore blobStore,
+                                DerivativeCache derivativeCache,
+                                TransactionTemplate transactionTemplate,
+                                CacheManager cacheManager,
+                                @Value("${imagelite.gc.enabled}") boolean enabled,
+                                @Value("${imagelite.gc.grace-period}") Duration gracePeriod,
+                                @Value("${imagelite.gc.batch-size}") int batchSize) {
+        this.blobRepository = blobRepository;
+        this.blobStore = blobStore;
+        this.derivativeCache = derivativeCache;
+        this.transactionTemplate = transactionTemplate;
+        // O descarte também é chamado ao fim de outra transação, cujos recursos ainda podem estar associados
+        this.discardTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.discardTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.contentCache = cacheManager.getCache(CacheConfig.IMAGE_CONTENT);
+        this.enabled = enabled;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Registra sem referências um blob gravado que nenhuma imagem chegou a referenciar, para que seja
+     * removido pela coleta se nenhuma outra imagem o usar. O registro é feito em uma transação própria.
+     */
+    public void discard(String blobKey, Long size) {
+        discardTemplate.executeWithoutResult(status -> {
+            blobRepository.retain(blobKey, size);
+            blobRepository.release(blobKey);
+        });
+    }
+
+    /**
+     * Descarta o conteúdo gravado por um envio cuja transação foi desfeita.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onImageContentRolledBack(ImageContentStoredEvent event) {
+        log.info("Envio desfeito, blob {} registrado para a coleta", event.getBlobKey());
+        discard(event.getBlobKey(), event.getSize());
+    }
+
+    @Scheduled(fixedDelayString = "${imagelite.gc.interval}", initialDelayString = "${imagelite.gc.interval}")
+    public void collect() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime releasedBefore = LocalDateTime.now().minus(gracePeriod);
+
+        int collected = 0;
+        List<String> keys;
+        do {
+            keys = transactionTemplate.execute(status -> collectBatch(releasedBefore));
+            keys.forEach(key -> {
+                contentCache.evict(key);
+                // As chaves das variantes começam pela chave do blob
+                derivativeCache.evictByPrefix(key);
+            });
+            collected += keys.size();
+            // Um lote incompleto (inclusive por falhas na remoção) encerra a execução
+        } while (keys.size() == batchSize);
+
+        if (collected > 0) {
+            log.info("Blobs sem referências removidos: {}", collected);
+        }
+    }
+
+    /**
+     * Remove um lote de blobs. Os registros ficam travados até o fim da transação, então um envio do mesmo
+     * conteúdo durante a remoção espera por ela e percebe que o blob não existe mais.
+     *
+     * @return as chaves dos blobs removidos
+     */
+    private List<String> collectBatch(LocalDateTime releasedBefore) {
+        List<ImageBlob> blobs = blobRepository.findUnreferencedForUpdate(releasedBefore, Limit.of(batchSize));
+        List<String> removed = new ArrayList<>(blobs.size());
+        for (ImageBlob blob : blobs) {
+            try {
+                blobStore.delete(blob.getBlobKey());
+                removed.add(blob.getBlobKey());
+            } catch (StorageException e) {
+                log.warn("Não foi possível remover o blob {}: {}", blob.getBlobKey(), e.getMessage());
+            }
+        }
+        if (!removed.isEmpty()) {
+            blobRepository.deleteAllByIdInBatch(removed);
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.domain.exception.StorageException;
+import io.github.mapsegundo.imageliteapi.infra.repository.ImageAccessTracker;
+import io.github.mapsegundo.imageliteapi.infra.repository.ImageBlobRepository;
+import io.github.mapsegundo.imageliteapi.infra.storage.TieredBlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Move para o arquivo os blobs cujas imagens não são baixadas há mais de {@code imagelite.tiering.cold-after},
+ * liberando o armazenamento principal. Os blobs voltam ao armazenamento principal no próximo download;
+ * veja {@link TieredBlobStore}.
+ */
+@Service
+@Slf4j
+public class BlobTieringService {
+
+    private final ImageBlobRepository blobRepository;
+    private final ImageAccessTracker accessTracker;
+    private final TieredBlobStore blobStore;
+    private final boolean enabled;
+    private final Duration coldAfter;
+    private final int batchSize;
+
+    public BlobTieringService(ImageBlobRepository blobRepository,
+                              ImageAccessTracker accessTracker,
+                              TieredBlobStore blobStore,
+                              @Value("${imagelite.tiering.enabled}") boolean enabled,
+                              @Value("${imagelite.tiering.cold-after}") Duration coldAfter,
+                              @Value("${imagelite.tiering.batch-size}") int batchSize) {
+        this.blobRepository = blobRepository;
+        this.accessTracker = accessTracker;
+        this.blobStore = blobStore;
+        this.enabled = enabled;
+        this.coldAfter = coldAfter;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${imagelite.tiering.interval}", initialDelayString = "${imagelite.tiering.interval}")
+    public void archiveColdBlobs() {
+        if (!enabled) {
+            return;
+        }
+        // Os acessos ainda em memória também contam
+        accessTracker.flush();
+        LocalDateTime accessedSince = LocalDateTime.now().minus(coldAfter);
+
+        int archived = 0;
+        List<String> keys;
+        do {
+            keys = blobRepository.findColdBlobKeys(accessedSince, Limit.of(batchSize));
+            int moved = 0;
+            for (String key : keys) {
+                try {
+                    if (blobStore.archive(key)) {
+                        moved++;
+                    }
+                } catch (StorageException e) {
+                    log.warn("Não foi possível arquivar o blob {}: {}", key, e.getMessage());
+                }
+            }
+            archived += moved;
+            // Sem progresso, os mesmos blobs voltariam na próxima consulta
+            if (moved == 0) {
+                break;
+            }
+        } while (keys.size() == batchSize);
+
+        if (archived > 0) {
+            log.info("Blobs movidos para o arquivo: {}", archived);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.domain.enums.PixelFormat;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.IndexColorModel;
+
+/**
+ * Informações de cor de uma imagem: formato dos pixels, lido do cabeçalho, e cor dominante,
+ * calculada sobre a amostra reduzida já decodificada para o hash perceptual.
+ */
+public class ImageColors {
+
+    /**
+     * Bits mantidos de cada canal no histograma da cor dominante; cores próximas caem no mesmo grupo.
+     */
+    private static final int BITS_PER_CHANNEL = 4;
+    private static final int MIN_OPAQUE_ALPHA = 128;
+
+    private ImageColors() {
+    }
+
+    public static PixelFormat pixelFormat(ColorModel colorModel) {
+        if (colorModel instanceof IndexColorModel) {
+            return PixelFormat.INDEXED;
+        }
+        int colorSpace = colorModel.getColorSpace().getType();
+        if (colorSpace == ColorSpace.TYPE_CMYK) {
+            return PixelFormat.CMYK;
+        }
+        if (colorSpace == ColorSpace.TYPE_GRAY) {
+            return colorModel.hasAlpha() ? PixelFormat.GRAYSCALE_ALPHA : PixelFormat.GRAYSCALE;
+        }
+        return colorModel.hasAlpha() ? PixelFormat.RGBA : PixelFormat.RGB;
+    }
+
+    /**
+     * Bits por canal, ou por pixel nas imagens com paleta.
+     */
+    public static int bitDepth(ColorModel colorModel) {
+        if (colorModel instanceof IndexColorModel) {
+            return colorModel.getPixelSize();
+        }
+        return colorModel.getComponentSize(0);
+    }
+
+    /**
+     * Calcula a cor predominante: os pixels são agrupados por cores próximas e é retornada a média
+     * do grupo mais numeroso. Pixels transparentes são ignorados.
+     *
+     * @param image a imagem, normalmente uma amostra reduzida
+     * @return a cor no formato {@code #rrggbb}, ou null se a imagem for toda transparente
+     */
+    public static String dominantColor(BufferedImage image) {
+        int shift = 8 - BITS_PER_CHANNEL;
+        int groups = 1 << (3 * BITS_PER_CHANNEL);
+        int[] counts = new int[groups];
+        long[] reds = new long[groups];
+        long[] greens = new long[groups];
+        long[] blues = new long[groups];
+
+        int width = image.getWidth();
+        int[] row = new int[width];
+        for (int y = 0; y < image.getHeight(); y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int argb : row) {
+                if ((argb >>> 24) < MIN_OPAQUE_ALPHA) {
+                    continue;
+                }
+                int red = (argb >> 16) & 0xFF;
+                int green = (argb >> 8) & 0xFF;
+                int blue = argb & 0xFF;
+                int group = (red >> shift) << (2 * BITS_PER_CHANNEL) | (green >> shift) << BITS_PER_CHANNEL | blue >> shift;
+                counts[group]++;
+                reds[group] += red;
+                greens[group] += green;
+                blues[group] += blue;
+            }
+        }
+
+        int dominant = 0;
+        for (int group = 1; group < groups; group++) {
+            if (counts[group] > counts[dominant]) {
+                dominant = group;
+            }
+        }
+        int count = counts[dominant];
+        if (count == 0) {
+            return null;
+        }
+        return String.format("#%02x%02x%02x", reds[dominant] / count, greens[dominant] / count, blues[dominant] / count);
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import lombok.Value;
+
+/**
+ * Evento publicado quando o conteúdo de uma imagem é gravado, dentro da transação que registra a referência
+ * da imagem ao blob.
+ */
+@Value
+public class ImageContentStoredEvent {
+    String blobKey;
+    Long size;
+}
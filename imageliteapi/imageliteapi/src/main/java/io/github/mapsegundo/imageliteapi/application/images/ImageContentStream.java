@@ -0,0 +1,73 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import lombok.Getter;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+/**
+ * Stream usado na ingestão de uploads. Identifica o formato da imagem pelos primeiros bytes,
+ * antes de qualquer gravação, e conta os bytes à medida que o conteúdo é repassado ao armazenamento,
+ * de forma que tamanho, hash e formato são obtidos em uma única leitura.
+ */
+public class ImageContentStream extends FilterInputStream {
+
+    @Getter
+    private final ImageExtension extension;
+
+    @Getter
+    private long bytesRead;
+
+    private ImageContentStream(PushbackInputStream in, ImageExtension extension) {
+        super(in);
+        this.extension = extension;
+    }
+
+    /**
+     * Lê a assinatura do conteúdo e a devolve ao stream, sem consumi-la.
+     *
+     * @param content o stream do upload
+     * @return o stream inspecionado
+     * @throws IOException se houver erro na leitura
+     */
+    public static ImageContentStream inspect(InputStream content) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(content, ImageExtension.SIGNATURE_LENGTH);
+        byte[] header = new byte[ImageExtension.SIGNATURE_LENGTH];
+        int length = in.readNBytes(header, 0, header.length);
+        in.unread(header, 0, length);
+        return new ImageContentStream(in, ImageExtension.ofSignature(header, length));
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            bytesRead++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            bytesRead += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        bytesRead += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+}
@@ -1,18 +1,31 @@
 package io.github.mapsegundo.imageliteapi.application.images;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Data
 @Builder
 public class ImageDTO {
     private String url;
+    private String thumbnailUrl;
     private String name;
+    private List<String> tags;
     private String extension;
     private Long size;
+    private Integer width;
+    private Integer height;
+    private String orientation;
+    private String pixelFormat;
+    private Integer bitDepth;
+    private String dominantColor;
+    private String status;
     @JsonFormat(pattern = "dd/MM/yyyy")
     private LocalDate uploadDate;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer distance;
 }
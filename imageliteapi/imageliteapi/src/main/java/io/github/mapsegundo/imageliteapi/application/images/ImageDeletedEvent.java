@@ -0,0 +1,11 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import lombok.Value;
+
+/**
+ * Evento publicado quando uma imagem é excluída.
+ */
+@Value
+public class ImageDeletedEvent {
+    String imageId;
+}
@@ -0,0 +1,161 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.domain.ImageVariant;
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.PixelFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Escolhe o formato em que uma imagem é servida. Por padrão é servido o conteúdo enviado; a imagem é
+ * convertida quando o formato é pedido explicitamente, quando o cliente não aceita o formato original
+ * (cabeçalho {@code Accept}) ou quando pede economia de dados (cabeçalho {@code Save-Data: on}), caso em
+ * que imagens opacas são servidas em JPEG com qualidade reduzida. As conversões ficam no cache de derivados.
+ */
+@Component
+public class ImageFormatNegotiator {
+
+    /**
+     * Formatos de saída, em ordem de preferência, quando o cliente não aceita o formato original.
+     */
+    private static final List<ImageExtension> FALLBACK_FORMATS = List.of(ImageExtension.JPEG, ImageExtension.PNG);
+
+    private static final Set<PixelFormat> OPAQUE_FORMATS = Set.of(PixelFormat.RGB, PixelFormat.GRAYSCALE, PixelFormat.CMYK);
+
+    private final int quality;
+    private final int saveDataQuality;
+    private final List<Integer> qualityLevels;
+
+    public ImageFormatNegotiator(@Value("${imagelite.transcoding.quality}") int quality,
+                                 @Value("${imagelite.transcoding.save-data-quality}") int saveDataQuality,
+                                 @Value("${imagelite.transcoding.quality-levels}") List<Integer> qualityLevels) {
+        this.quality = quality;
+        this.saveDataQuality = saveDataQuality;
+        this.qualityLevels = List.copyOf(qualityLevels);
+    }
+
+    /**
+     * Define a variante servida para uma requisição.
+     *
+     * @param image    a imagem
+     * @param variant  a variante redimensionada pedida, ou null para o tamanho original
+     * @param format   o formato pedido explicitamente, opcional
+     * @param quality  a qualidade pedida explicitamente, opcional; arredondada para o nível configurado mais próximo
+     * @param accept   o cabeçalho {@code Accept}, opcional
+     * @param saveData o cabeçalho {@code Save-Data}, opcional
+     * @return a variante a servir, ou null para servir o conteúdo original
+     * @throws IllegalArgumentException se o formato ou a qualidade pedidos forem inválidos
+     */
+    public ImageVariant negotiate(Image image, ImageVariant variant, String format, Integer quality,
+                                  String accept, String saveData) {
+        ImageExtension original = image.getExtension();
+        if (StringUtils.hasText(format)) {
+            ImageExtension target = ImageExtension.ofName(format);
+            if (target == null) {
+                throw new IllegalArgumentException("Unsupported output format: " + format);
+            }
+            return convert(variant, target, quality != null ? level(quality) : this.quality);
+        }
+        if (quality != null) {
+            if (!original.isLossy()) {
+                throw new IllegalArgumentException("Quality requires a lossy output format");
+            }
+            return convert(variant, original, level(quality));
+        }
+
+        List<MediaType> accepted = parseAccept(accept);
+        if (!accepts(accepted, original)) {
+            for (ImageExtension target : FALLBACK_FORMATS) {
+                if (accepts(accepted, target) && (target.isTransparency() || isOpaque(image))) {
+                    return convert(variant, target, this.quality);
+                }
+            }
+            // Nenhum formato aceito pode representar a imagem; o original é servido mesmo assim
+            return variant;
+        }
+
+        if ("on".equalsIgnoreCase(saveData) && original != ImageExtension.GIF && isOpaque(image)
+                && accepts(accepted, ImageExtension.JPEG)) {
+            return convert(variant, ImageExtension.JPEG, saveDataQuality);
+        }
+        return variant;
+    }
+
+    /**
+     * Arredonda a qualidade pedida para o nível configurado mais próximo, o que limita a quantidade de
+     * conversões diferentes de uma mesma imagem no cache de derivados.
+     */
+    private int level(int quality) {
+        if (quality < 1 || quality > 100) {
+            throw new IllegalArgumentException("Quality must be between 1 and 100");
+        }
+        int level = qualityLevels.get(0);
+        for (int candidate : qualityLevels) {
+            if (Math.abs(candidate - quality) < Math.abs(level - quality)
+                    || (Math.abs(candidate - quality) == Math.abs(level - quality) && candidate > level)) {
+                level = candidate;
+            }
+        }
+        return level;
+    }
+
+    private static ImageVariant convert(ImageVariant variant, ImageExtension format, int quality) {
+        return variant != null ? variant.withFormat(format, quality) : ImageVariant.converted(format, quality);
+    }
+
+    /**
+     * Imagens sem canal de transparência; antes do processamento só os JPEGs são sabidamente opacos.
+     */
+    private static boolean isOpaque(Image image) {
+        if (image.getPixelFormat() == null) {
+            return image.getExtension() == ImageExtension.JPEG;
+        }
+        return OPAQUE_FORMATS.contains(image.getPixelFormat());
+    }
+
+    private static List<MediaType> parseAccept(String accept) {
+        if (!StringUtils.hasText(accept)) {
+            return List.of();
+        }
+        try {
+            return MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Verifica se o formato é aceito, considerando a entrada mais específica que o inclui:
+     * em {@code image/png;q=0, *}{@code /*} o PNG não é aceito.
+     */
+    private static boolean accepts(List<MediaType> accepted, ImageExtension format) {
+        if (accepted.isEmpty()) {
+            return true;
+        }
+        MediaType match = null;
+        for (MediaType mediaType : accepted) {
+            if (mediaType.includes(format.getMediaType()) && (match == null || specificity(mediaType) > specificity(match))) {
+                match = mediaType;
+            }
+        }
+        return match != null && match.getQualityValue() > 0;
+    }
+
+    /**
+     * O {@link MediaType#isMoreSpecific} do Spring também compara o parâmetro q, então a especificidade
+     * é calculada apenas pelos curingas.
+     */
+    private static int specificity(MediaType mediaType) {
+        if (mediaType.isWildcardType()) {
+            return 0;
+        }
+        return mediaType.isWildcardSubtype() ? 1 : 2;
+    }
+}
@@ -1,36 +1,128 @@
 package io.github.mapsegundo.imageliteapi.application.images;
 
+import io.github.mapsegundo.imageliteapi.domain.ImageSummary;
+import io.github.mapsegundo.imageliteapi.domain.ImageUpdate;
 import io.github.mapsegundo.imageliteapi.domain.entity.Image;
-import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
-import org.springframework.http.MediaType;
+import io.github.mapsegundo.imageliteapi.domain.enums.Orientation;
 import org.springframework.stereotype.Component;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class ImageMapper {
 
-    public Image mapToImage(MultipartFile file, String name, List<String> tags) throws IOException {
+    private static final int MAX_TAG_LENGTH = 100;
+    private static final int MAX_TAGS = 20;
 
+    /**
+     * @throws IllegalArgumentException se alguma tag for maior que o tamanho máximo ou se houver tags demais
+     */
+    public Image mapToImage(String name, List<String> tags, String ownerId) {
         return Image.builder()
                 .name(name)
-                .tags(String.join(",", tags))
-                .size(file.getSize())
-                .extension(ImageExtension.valueOf(MediaType.valueOf(file.getContentType())))
-                .file(file.getBytes())
+                .tags(validTags(tags))
+                .ownerId(ownerId)
                 .build();
     }
 
-    public ImageDTO imageToDTO(Image image, String url) {
+    /**
+     * @throws IllegalArgumentException se nada for alterado, se o nome estiver em branco, se alguma tag
+     *                                  for maior que o tamanho máximo ou se houver tags demais
+     */
+    public ImageUpdate mapToUpdate(ImageUpdateDTO dto) {
+        if (dto == null || (dto.getName() == null && dto.getTags() == null)) {
+            throw new IllegalArgumentException("Nothing to update");
+        }
+        if (dto.getName() != null && dto.getName().isBlank()) {
+            throw new IllegalArgumentException("Name must not be blank");
+        }
+        return ImageUpdate.builder()
+                .name(dto.getName())
+                .tags(dto.getTags() != null ? validTags(dto.getTags()) : null)
+                .build();
+    }
+
+    private Set<String> validTags(List<String> tags) {
+        Set<String> normalizedTags = normalizeTags(tags);
+        if (normalizedTags.stream().anyMatch(tag -> tag.length() > MAX_TAG_LENGTH)) {
+            throw new IllegalArgumentException("Tags must have at most " + MAX_TAG_LENGTH + " characters");
+        }
+        if (normalizedTags.size() > MAX_TAGS) {
+            throw new IllegalArgumentException("An image must have at most " + MAX_TAGS + " tags");
+        }
+        // As tags também são gravadas juntas, separadas por espaço, no documento da busca textual
+        int documentLength = normalizedTags.stream().mapToInt(String::length).sum() + normalizedTags.size() - 1;
+        if (documentLength > Image.MAX_TAG_DOCUMENT_LENGTH) {
+            throw new IllegalArgumentException("Tags must have at most " + Image.MAX_TAG_DOCUMENT_LENGTH
+                    + " characters in total");
+        }
+        return normalizedTags;
+    }
+
+    /**
+     * Normaliza as tags (sem espaços nas pontas, em minúsculas e sem repetições),
+     * já que a busca por tag é feita por igualdade.
+     *
+     * @param tags as tags informadas
+     * @return o conjunto de tags normalizadas
+     */
+    public Set<String> normalizeTags(Collection<String> tags) {
+        if (tags == null) {
+            return new HashSet<>();
+        }
+        return tags.stream()
+                .filter(Objects::nonNull)
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .filter(tag -> !tag.isEmpty())
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    public ImageDTO summaryToDTO(ImageSummary image, String url, String thumbnailUrl) {
         return ImageDTO
                 .builder()
                 .url(url)
+                .thumbnailUrl(thumbnailUrl)
                 .extension(image.getExtension().name())
                 .name(image.getName())
+                .tags(image.getTags())
                 .size(image.getSize())
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .orientation(nameOf(Orientation.of(image.getWidth(), image.getHeight())))
+                .pixelFormat(nameOf(image.getPixelFormat()))
+                .bitDepth(image.getBitDepth())
+                .dominantColor(image.getDominantColor())
+                .status(nameOf(image.getProcessingStatus()))
                 .uploadDate(image.getUploadDate().toLocalDate())
+                .distance(image.getDistance())
                 .build();
     }
+
+    public ImageDTO imageToDTO(Image image, String url, String thumbnailUrl) {
+        ImageSummary summary = ImageSummary.builder()
+                .id(image.getId())
+                .name(image.getName())
+                .extension(image.getExtension())
+                .size(image.getSize())
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .pixelFormat(image.getPixelFormat())
+                .bitDepth(image.getBitDepth())
+                .dominantColor(image.getDominantColor())
+                .processingStatus(image.getProcessingStatus())
+                .uploadDate(image.getUploadDate())
+                .tags(image.getTags().stream().sorted().toList())
+                .build();
+        return summaryToDTO(summary, url, thumbnailUrl);
+    }
+
+    private static String nameOf(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
 }
@@ -0,0 +1,111 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.domain.ImagePage;
+import io.github.mapsegundo.imageliteapi.domain.ImageSearch;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.util.function.Supplier;
+
+/**
+ * Métricas das operações com imagens, publicadas pelo actuator (inclusive em {@code /actuator/prometheus}).
+ * Envios e pesquisas são registrados como observações, que geram um timer e, com o rastreamento
+ * habilitado, um span. Os tamanhos são registrados em distribuições, com histograma para percentis.
+ */
+@Component
+public class ImageMetrics {
+
+    private static final double MAX_EXPECTED_SIZE = DataSize.ofMegabytes(20).toBytes();
+    private static final double MAX_EXPECTED_RESULTS = 101;
+
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary uploadSize;
+    private final DistributionSummary searchResults;
+
+    public ImageMetrics(ObservationRegistry observationRegistry, MeterRegistry meterRegistry) {
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+        this.uploadSize = DistributionSummary.builder("imagelite.upload.size")
+                .description("Tamanho das imagens enviadas")
+                .baseUnit(BaseUnits.BYTES)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_SIZE)
+                .register(meterRegistry);
+        this.searchResults = DistributionSummary.builder("imagelite.search.results")
+                .description("Quantidade de imagens retornadas por página da pesquisa")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_RESULTS)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Mede um envio de imagens.
+     *
+     * @param mode   {@code single} para uma imagem ou {@code batch} para um lote
+     * @param upload a gravação das imagens
+     * @return o resultado da gravação
+     */
+    public <T> T observeUpload(String mode, Supplier<T> upload) {
+        return Observation.createNotStarted("imagelite.upload", observationRegistry)
+                .contextualName("image upload")
+                .lowCardinalityKeyValue("mode", mode)
+                .observe(upload);
+    }
+
+    public void recordUploadSize(long bytes) {
+        uploadSize.record(bytes);
+    }
+
+    /**
+     * Mede uma pesquisa e registra a quantidade de imagens retornadas.
+     *
+     * @param search os critérios, que definem o tipo da pesquisa nas métricas
+     * @param query  a execução da pesquisa
+     * @return a página de imagens encontrada
+     */
+    public ImagePage observeSearch(ImageSearch search, Supplier<ImagePage> query) {
+        ImagePage page = Observation.createNotStarted("imagelite.search", observationRegistry)
+                .contextualName("image search")
+                .lowCardinalityKeyValue("type", searchType(search))
+                .observe(query);
+        searchResults.record(page.getImages().size());
+        return page;
+    }
+
+    /**
+     * Registra o tamanho do conteúdo servido em um download.
+     *
+     * @param variant {@code original}, {@code resized} ou {@code converted}
+     * @param bytes   o tamanho do conteúdo
+     */
+    public void recordDownloadSize(String variant, long bytes) {
+        DistributionSummary.builder("imagelite.download.size")
+                .description("Tamanho do conteúdo das imagens servidas")
+                .baseUnit(BaseUnits.BYTES)
+                .tag("variant", variant)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_SIZE)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * O tipo da pesquisa, com poucos valores possíveis para não multiplicar as séries das métricas.
+     */
+    private static String searchType(ImageSearch search) {
+        if (StringUtils.hasText(search.getQuery())) {
+            return "text";
+        }
+        if (search.getTags() != null && !search.getTags().isEmpty()) {
+            return "tags";
+        }
+        return "browse";
+    }
+}
@@ -0,0 +1,312 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.domain.ImageVariant;
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus;
+import io.github.mapsegundo.imageliteapi.domain.exception.StorageException;
+import io.github.mapsegundo.imageliteapi.infra.repository.ImageBlobRepository;
+import io.github.mapsegundo.imageliteapi.infra.repository.ImageRepository;
+import io.github.mapsegundo.imageliteapi.infra.repository.UserRepository;
+import io.github.mapsegundo.imageliteapi.infra.storage.BlobStore;
+import io.github.mapsegundo.imageliteapi.infra.storage.DerivativeCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Processamento executado em segundo plano após o upload de uma imagem:
+ * remoção de metadados EXIF, leitura das dimensões e do formato dos pixels, cálculo do hash perceptual
+ * e da cor dominante e geração da miniatura.
+ * O hash do conteúdo já é calculado na ingestão, pois é a chave do blob.
+ * <p>
+ * O processamento só começa depois do commit da transação que salvou a imagem, e roda em um pool
+ * limitado. Imagens que não couberem na fila continuam pendentes e são reenviadas pela varredura periódica.
+ */
+@Service
+@Slf4j
+public class ImageProcessingService {
+
+    private final ImageRepository repository;
+    private final ImageBlobRepository blobRepository;
+    private final UserRepository userRepository;
+    private final DerivativeCache derivativeCache;
+    private final ImageVariantRenderer variantRenderer;
+    private final SimilarImageIndex similarImageIndex;
+    private final BlobGarbageCollector blobGarbageCollector;
+    private final BlobStore blobStore;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retryDelay;
+    private final Duration stuckTimeout;
+
+    /**
+     * Imagens já enfileiradas, para que a varredura não as envie novamente.
+     */
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    public ImageProcessingService(ImageRepository repository,
+                                  ImageBlobRepository blobRepository,
+                                  UserRepository userRepository,
+                                  DerivativeCache derivativeCache,
+                                  ImageVariantRenderer variantRenderer,
+                                  SimilarImageIndex similarImageIndex,
+                                  BlobGarbageCollector blobGarbageCollector,
+                                  BlobStore blobStore,
+                                  @Qualifier("imageProcessingExecutor") ThreadPoolTaskExecutor executor,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${imagelite.processing.retry-delay}") Duration retryDelay,
+                                  @Value("${imagelite.processing.stuck-timeout}") Duration stuckTimeout) {
+        this.repository = repository;
+        this.blobRepository = blobRepository;
+        this.userRepository = userRepository;
+        this.derivativeCache = derivativeCache;
+        this.variantRenderer = variantRenderer;
+        this.similarImageIndex = similarImageIndex;
+        this.blobGarbageCollector = blobGarbageCollector;
+        this.blobStore = blobStore;
+        this.executor = executor;
+        this.transactionTemplate = transactionTemplate;
+        this.retryDelay = retryDelay;
+        this.stuckTimeout = stuckTimeout;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onImageSaved(ImageSavedEvent event) {
+        submit(event.getImageId());
+    }
+
+    /**
+     * Reenvia para a fila as imagens pendentes, respeitando a capacidade livre da fila.
+     * Também recupera imagens antigas sem situação e processamentos interrompidos.
+     */
+    @Scheduled(fixedDelayString = "${imagelite.processing.retry-delay}")
+    public void resubmitPending() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.markUnprocessedAsPending();
+        repository.resetProcessingStartedBefore(now.minus(stuckTimeout));
+
+        int capacity = executor.getQueueCapacity() - executor.getQueueSize();
+        if (capacity <= 0) {
+            return;
+        }
+        repository.findByProcessingStatusAndUploadDateBefore(ProcessingStatus.PENDING, now.minus(retryDelay), Limit.of(capacity))
+                .forEach(image -> submit(image.getId()));
+    }
+
+    private void submit(String imageId) {
+        if (!queued.add(imageId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> process(imageId));
+        } catch (TaskRejectedException e) {
+            queued.remove(imageId);
+            log.warn("Fila de processamento cheia, a imagem {} será processada depois", imageId);
+        }
+    }
+
+    private void process(String imageId) {
+        queued.remove(imageId);
+        // A troca de situação funciona como uma trava: apenas uma execução processa a imagem
+        LocalDateTime startedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (repository.startProcessing(imageId, startedAt) == 0) {
+            return;
+        }
+
+        try {
+            Image image = repository.findById(imageId)
+                    .orElseThrow(() -> new IllegalStateException("Image not found: " + imageId));
+            String originalBlobKey = image.getBlobKey();
+            Long originalSize = image.getSize();
+
+            boolean completed;
+            try {
+                if (image.getExtension() == ImageExtension.JPEG) {
+                    stripMetadata(image);
+                }
+                readHeader(image);
+                readSample(image);
+                renderThumbnail(image);
+                completed = complete(image, startedAt, originalBlobKey, originalSize);
+            } catch (Exception e) {
+                // O blob sem metadados não chegou a ser referenciado pela imagem
+                if (!Objects.equals(image.getBlobKey(), originalBlobKey)) {
+                    blobGarbageCollector.discard(image.getBlobKey(), image.getSize());
+                }
+                throw e;
+            }
+            if (!completed) {
+                log.info("Imagem {} excluída ou devolvida à fila durante o processamento", imageId);
+                return;
+            }
+            similarImageIndex.add(imageId, image.getPerceptualHash());
+            log.info("Imagem processada: id: {}, {}x{}", imageId, image.getWidth(), image.getHeight());
+        } catch (Exception e) {
+            log.error("Erro no processamento da imagem {}: {}", imageId, e.getMessage());
+            repository.failProcessing(imageId, startedAt);
+        }
+    }
+
+    /**
+     * Gera antecipadamente a miniatura usada nas listagens, direto no cache de derivados: a geração não conta
+     * como um acesso à imagem, que adiaria o arquivamento. Uma falha aqui não impede o processamento:
+     * a miniatura volta a ser gerada na primeira requisição.
+     */
+    private void renderThumbnail(Image image) {
+        try {
+            Resource original = content(image);
+            derivativeCache.getOrCreate(ImageVariant.THUMBNAIL.cacheKey(image.getBlobKey()), out -> {
+                try (InputStream in = original.getInputStream()) {
+                    variantRenderer.render(in, image.getExtension(), ImageVariant.THUMBNAIL, out);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Miniatura da imagem {} não gerada: {}", image.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Registra o resultado do processamento. A referência passa do blob original para o blob sem metadados
+     * junto com a conclusão.
+     *
+     * @return false se a imagem foi excluída ou devolvida à fila durante o processamento
+     */
+    private boolean complete(Image image, LocalDateTime startedAt, String originalBlobKey, Long originalSize) {
+        String imageId = image.getId();
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            int updated = repository.completeProcessing(imageId, startedAt, image.getBlobKey(), image.getSize(), image.getWidth(),
+                    image.getHeight(), image.getPixelFormat(), image.getBitDepth(), image.getDominantColor(),
+                    image.getPerceptualHash());
+            if (!image.getBlobKey().equals(originalBlobKey)) {
+                blobRepository.retain(image.getBlobKey(), image.getSize());
+                if (updated > 0) {
+                    // Como no envio, a referência só vale se a coleta não removeu o blob antes dela
+                    if (!blobStore.exists(image.getBlobKey())) {
+                        throw new StorageException("Blob removido durante o processamento: " + image.getBlobKey());
+                    }
+                    blobRepository.release(originalBlobKey);
+                } else {
+                    // A imagem foi excluída ou devolvida à fila: o blob novo fica sem referências, para a coleta
+                    blobRepository.release(image.getBlobKey());
+                }
+            }
+            // A cota do dono acompanha o tamanho da imagem sem metadados
+            if (updated > 0 && image.getOwnerId() != null && originalSize != null
+                    && !originalSize.equals(image.getSize())) {
+                userRepository.addStorageUsed(image.getOwnerId(), image.getSize() - originalSize);
+            }
+            return updated > 0;
+        }));
+    }
+
+    /**
+     * Grava uma cópia do JPEG sem metadados e passa a imagem a referenciar o novo blob.
+     * O blob anterior não é removido aqui, pois pode ser compartilhado por outras imagens com o mesmo conteúdo;
+     * a imagem apenas deixa de contar como referência dele.
+     */
+    private void stripMetadata(Image image) throws IOException {
+        Resource original = content(image);
+        Path temp = Files.createTempFile("imagelite-strip-", ".jpg");
+        try {
+            boolean modified;
+            try (InputStream in = original.getInputStream();
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                modified = JpegMetadataStripper.strip(in, out);
+            }
+            if (!modified) {
+                return;
+            }
+            long size = Files.size(temp);
+            try (InputStream in = Files.newInputStream(temp)) {
+                image.setBlobKey(blobStore.put(in));
+            }
+            image.setSize(size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Lê largura, altura e formato dos pixels apenas do cabeçalho da imagem, sem decodificar os pixels.
+     */
+    private void readHeader(Image image) throws IOException {
+        try (InputStream in = content(image).getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image content");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                image.setWidth(reader.getWidth(0));
+                image.setHeight(reader.getHeight(0));
+                ImageTypeSpecifier type = rawImageType(reader);
+                if (type != null) {
+                    image.setPixelFormat(ImageColors.pixelFormat(type.getColorModel()));
+                    image.setBitDepth(ImageColors.bitDepth(type.getColorModel()));
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * O tipo dos pixels como estão gravados; alguns JPEGs (CMYK, por exemplo) só informam os tipos
+     * para os quais podem ser convertidos.
+     */
+    private static ImageTypeSpecifier rawImageType(ImageReader reader) throws IOException {
+        ImageTypeSpecifier type = reader.getRawImageType(0);
+        if (type != null) {
+            return type;
+        }
+        Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0);
+        return types.hasNext() ? types.next() : null;
+    }
+
+    /**
+     * Calcula o hash perceptual e a cor dominante sobre uma única amostra reduzida da imagem.
+     */
+    private void readSample(Image image) throws IOException {
+        try (InputStream in = content(image).getInputStream()) {
+            BufferedImage sample = PerceptualHash.readSample(in);
+            image.setPerceptualHash(PerceptualHash.dHash(sample));
+            image.setDominantColor(ImageColors.dominantColor(sample));
+        }
+    }
+
+    private Resource content(Image image) {
+        return blobStore.get(image.getBlobKey())
+                .orElseThrow(() -> new StorageException("Blob not found: " + image.getBlobKey()));
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import lombok.Value;
+
+/**
+ * Evento publicado quando uma nova imagem é salva.
+ */
+@Value
+public class ImageSavedEvent {
+    String imageId;
+}
@@ -1,36 +1,461 @@
 package io.github.mapsegundo.imageliteapi.application.images;
 
+import io.github.mapsegundo.imageliteapi.config.CacheConfig;
+import io.github.mapsegundo.imageliteapi.domain.ImageCursor;
+import io.github.mapsegundo.imageliteapi.domain.ImagePage;
+import io.github.mapsegundo.imageliteapi.domain.ImageSearch;
+import io.github.mapsegundo.imageliteapi.domain.ImageSummary;
+import io.github.mapsegundo.imageliteapi.domain.ImageUpdate;
+import io.github.mapsegundo.imageliteapi.domain.ImageUpload;
+import io.github.mapsegundo.imageliteapi.domain.ImageUploadResult;
+import io.github.mapsegundo.imageliteapi.domain.ImageVariant;
+import io.github.mapsegundo.imageliteapi.domain.TagCount;
 import io.github.mapsegundo.imageliteapi.domain.entity.Image;
-import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus;
+import io.github.mapsegundo.imageliteapi.domain.exception.NotOwnerException;
+import io.github.mapsegundo.imageliteapi.domain.exception.QuotaExceededException;
+import io.github.mapsegundo.imageliteapi.domain.exception.StorageException;
 import io.github.mapsegundo.imageliteapi.domain.service.ImageService;
+import io.github.mapsegundo.imageliteapi.infra.repository.ImageAccessTracker;
+import io.github.mapsegundo.imageliteapi.infra.repository.ImageBlobRepository;
 import io.github.mapsegundo.imageliteapi.infra.repository.ImageRepository;
-import lombok.RequiredArgsConstructor;
+import io.github.mapsegundo.imageliteapi.infra.repository.UserRepository;
+import io.github.mapsegundo.imageliteapi.infra.storage.BlobStore;
+import io.github.mapsegundo.imageliteapi.infra.storage.DerivativeCache;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class ImageServiceImpl implements ImageService {
 
     private final ImageRepository repository;
+    private final ImageBlobRepository blobRepository;
+    private final BlobStore blobStore;
+    private final DerivativeCache derivativeCache;
+    private final ImageVariantRenderer variantRenderer;
+    private final SimilarImageIndex similarImageIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTaskExecutor batchExecutor;
+    private final ImageMetrics metrics;
+    private final ImageAccessTracker accessTracker;
+    private final UserRepository userRepository;
+    private final Cache contentCache;
+    private final long maxCachedContentSize;
+    private final long maxStoragePerUser;
 
+    public ImageServiceImpl(ImageRepository repository,
+                            ImageBlobRepository blobRepository,
+                            BlobStore blobStore,
+                            DerivativeCache derivativeCache,
+                            ImageVariantRenderer variantRenderer,
+                            SimilarImageIndex similarImageIndex,
+                            ApplicationEventPublisher eventPublisher,
+                            TransactionTemplate transactionTemplate,
+                            @Qualifier("imageBatchExecutor") AsyncTaskExecutor batchExecutor,
+                            ImageMetrics metrics,
+                            ImageAccessTracker accessTracker,
+                            UserRepository userRepository,
+                            CacheManager cacheManager,
+                            @Value("${imagelite.cache.content.max-entry-size}") DataSize maxCachedContentSize,
+                            @Value("${imagelite.quota.max-storage}") DataSize maxStoragePerUser) {
+        this.repository = repository;
+        this.blobRepository = blobRepository;
+        this.blobStore = blobStore;
+        this.derivativeCache = derivativeCache;
+        this.variantRenderer = variantRenderer;
+        this.similarImageIndex = similarImageIndex;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchExecutor = batchExecutor;
+        this.metrics = metrics;
+        this.accessTracker = accessTracker;
+        this.userRepository = userRepository;
+        this.contentCache = cacheManager.getCache(CacheConfig.IMAGE_CONTENT);
+        this.maxCachedContentSize = maxCachedContentSize.toBytes();
+        this.maxStoragePerUser = maxStoragePerUser.toBytes();
+    }
+
+    /**
+     * Salva a imagem enviando o conteúdo em streaming para o armazenamento.
+     * Formato, tamanho e hash são obtidos na mesma leitura que grava o blob; se o conteúdo já existir,
+     * a imagem passa a referenciar o blob existente em vez de gravar uma cópia.
+     * O restante do processamento é feito em segundo plano, após o commit.
+     * O tamanho da imagem é descontado da cota de armazenamento do dono.
+     * Se a transação for desfeita, o blob gravado é registrado sem referências, para a coleta.
+     *
+     * @throws IllegalArgumentException se o conteúdo não for de um formato suportado
+     * @throws QuotaExceededException   se a imagem não couber na cota do dono
+     */
     @Override
-    @Transactional
-    public Image save(Image image) {
-        return repository.save(image);
+    @Transactional(noRollbackFor = QuotaExceededException.class)
+    public Image save(Image image, InputStream content) {
+        return metrics.observeUpload("single", () -> {
+            storeContent(image, content);
+            eventPublisher.publishEvent(new ImageContentStoredEvent(image.getBlobKey(), image.getSize()));
+            if (!reserveStorage(image)) {
+                discardContent(image);
+                throw new QuotaExceededException("Storage quota exceeded");
+            }
+
+            Image savedImage = repository.save(image);
+            retain(savedImage);
+            eventPublisher.publishEvent(new ImageSavedEvent(savedImage.getId()));
+            return savedImage;
+        });
+    }
+
+    /**
+     * Salva um lote de imagens. O conteúdo dos itens é gravado em paralelo, fora de transação, e os
+     * metadados dos itens válidos são inseridos juntos em uma única transação curta, em lotes JDBC.
+     * Um item com conteúdo inválido ou que não cabe na cota do dono não impede que os demais sejam salvos.
+     *
+     * @param uploads os itens do lote
+     * @return o resultado de cada item, na ordem do envio
+     */
+    @Override
+    public List<ImageUploadResult> saveAll(List<ImageUpload> uploads) {
+        return metrics.observeUpload("batch", () -> saveBatch(uploads));
+    }
+
+    private List<ImageUploadResult> saveBatch(List<ImageUpload> uploads) {
+        List<CompletableFuture<Image>> stored = uploads.stream()
+                .map(upload -> CompletableFuture.supplyAsync(() -> storeContent(upload), batchExecutor))
+                .toList();
+
+        ImageUploadResult[] results = new ImageUploadResult[uploads.size()];
+        List<Image> images = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < uploads.size(); i++) {
+            String name = uploads.get(i).getImage().getName();
+            try {
+                images.add(stored.get(i).join());
+                positions.add(i);
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof IllegalArgumentException) {
+                    results[i] = ImageUploadResult.failed(i, name, cause.getMessage());
+                } else {
+                    log.warn("Falha ao gravar o item {} do lote", i, cause);
+                    results[i] = ImageUploadResult.failed(i, name, "Failed to store image content");
+                }
+            }
+        }
+
+        if (!images.isEmpty()) {
+            boolean[] accepted = new boolean[images.size()];
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Image> withinQuota = new ArrayList<>();
+                for (int i = 0; i < images.size(); i++) {
+                    Image image = images.get(i);
+                    eventPublisher.publishEvent(new ImageContentStoredEvent(image.getBlobKey(), image.getSize()));
+                    accepted[i] = reserveStorage(image);
+                    if (accepted[i]) {
+                        withinQuota.add(image);
+                    } else {
+                        discardContent(image);
+                    }
+                }
+                repository.saveAll(withinQuota).forEach(image -> {
+                    retain(image);
+                    eventPublisher.publishEvent(new ImageSavedEvent(image.getId()));
+                });
+            });
+            for (int i = 0; i < images.size(); i++) {
+                Image image = images.get(i);
+                int position = positions.get(i);
+                results[position] = accepted[i]
+                        ? ImageUploadResult.saved(position, image.getName(), image.getId())
+                        : ImageUploadResult.failed(position, image.getName(), "Storage quota exceeded");
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Registra a referência da imagem ao blob. A coleta de blobs sem referências trava os registros que
+     * remove, então a referência só é registrada depois que a coleta termina; se o blob acabou de ser
+     * removido, o envio falha em vez de salvar uma imagem sem conteúdo.
+     */
+    private void retain(Image image) {
+        blobRepository.retain(image.getBlobKey(), image.getSize());
+        if (!blobStore.exists(image.getBlobKey())) {
+            throw new StorageException("Blob removido durante o envio: " + image.getBlobKey());
+        }
+    }
+
+    /**
+     * Reserva na cota do dono o espaço da imagem. Imagens sem dono não são limitadas.
+     *
+     * @return false se a cota do dono seria excedida
+     */
+    private boolean reserveStorage(Image image) {
+        if (image.getOwnerId() == null) {
+            return true;
+        }
+        if (maxStoragePerUser <= 0) {
+            userRepository.addStorageUsed(image.getOwnerId(), image.getSize());
+            return true;
+        }
+        return userRepository.reserveStorage(image.getOwnerId(), image.getSize(), maxStoragePerUser) > 0;
+    }
+
+    /**
+     * Descarta o conteúdo já gravado de uma imagem recusada. O blob é registrado sem referências,
+     * como se a imagem tivesse sido excluída, e é removido pela coleta se nenhuma outra imagem o usar.
+     */
+    private void discardContent(Image image) {
+        blobRepository.retain(image.getBlobKey(), image.getSize());
+        blobRepository.release(image.getBlobKey());
+    }
+
+    private Image storeContent(ImageUpload upload) {
+        try (InputStream content = upload.getContent().getInputStream()) {
+            return storeContent(upload.getImage(), content);
+        } catch (IOException e) {
+            throw new StorageException("Erro ao ler o conteúdo da imagem", e);
+        }
+    }
+
+    /**
+     * Grava o conteúdo da imagem no armazenamento, preenchendo formato, tamanho e hash na mesma leitura.
+     *
+     * @throws IllegalArgumentException se o conteúdo não for de um formato suportado
+     */
+    private Image storeContent(Image image, InputStream content) {
+        try (ImageContentStream stream = ImageContentStream.inspect(content)) {
+            if (stream.getExtension() == null) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            String blobKey = blobStore.put(stream);
+            image.setBlobKey(blobKey);
+            image.setSize(stream.getBytesRead());
+            image.setExtension(stream.getExtension());
+            metrics.recordUploadSize(stream.getBytesRead());
+        } catch (IOException e) {
+            throw new StorageException("Erro ao ler o conteúdo da imagem", e);
+        }
+        image.setProcessingStatus(ProcessingStatus.PENDING);
+        return image;
     }
 
+    /**
+     * Recupera os metadados de uma imagem, guardando-os em cache. O cache é invalidado quando
+     * o processamento altera a imagem.
+     */
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.IMAGES, unless = "#result == null")
     public Optional<Image> getById(String id) {
-        return repository.findById(id);
+        Optional<Image> image = repository.findById(id);
+        // As tags são carregadas antes de a imagem ir para o cache, onde fica fora da sessão
+        image.ifPresent(found -> Hibernate.initialize(found.getTags()));
+        return image;
+    }
+
+    /**
+     * Altera o nome e/ou as tags da imagem. O conteúdo não muda, então o ETag e as variantes continuam válidos.
+     *
+     * @throws NotOwnerException se a imagem não pertencer ao usuário
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.IMAGES, key = "#id")
+    public Optional<Image> update(String id, String userId, ImageUpdate update) {
+        Optional<Image> image = repository.findForUpdate(id);
+        image.ifPresent(found -> {
+            checkOwner(found, userId);
+            if (update.getName() != null) {
+                found.setName(update.getName());
+            }
+            if (update.getTags() != null) {
+                found.setTags(update.getTags());
+            }
+            Hibernate.initialize(found.getTags());
+        });
+        return image;
+    }
+
+    /**
+     * Exclui a imagem e libera a sua referência ao blob. O conteúdo não é removido aqui, pois pode ser
+     * compartilhado por outras imagens; os blobs sem referências são removidos depois, em lotes,
+     * pelo {@link BlobGarbageCollector}. A imagem sai do índice de imagens parecidas após o commit.
+     *
+     * @return false se a imagem não existir
+     * @throws NotOwnerException se a imagem não pertencer ao usuário
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.IMAGES, key = "#id")
+    public boolean delete(String id, String userId) {
+        Optional<Image> image = repository.findForUpdate(id);
+        if (image.isEmpty()) {
+            return false;
+        }
+        checkOwner(image.get(), userId);
+        repository.delete(image.get());
+        if (image.get().getBlobKey() != null) {
+            blobRepository.release(image.get().getBlobKey());
+        }
+        if (image.get().getOwnerId() != null && image.get().getSize() != null) {
+            userRepository.addStorageUsed(image.get().getOwnerId(), -image.get().getSize());
+        }
+        eventPublisher.publishEvent(new ImageDeletedEvent(id));
+        log.info("Imagem excluída: id: {}", id);
+        return true;
+    }
+
+    /**
+     * Verifica o dono na imagem já travada, para que a verificação e a alteração vejam o mesmo registro.
+     * Imagens sem dono, enviadas antes do registro do dono, não podem ser alteradas por nenhum usuário.
+     */
+    private static void checkOwner(Image image, String userId) {
+        if (image.getOwnerId() == null || !image.getOwnerId().equals(userId)) {
+            throw new NotOwnerException("Image belongs to another user");
+        }
+    }
+
+    /**
+     * Recupera o conteúdo da imagem. Imagens pequenas ficam em cache na memória pela chave do blob,
+     * que é imutável, então o cache nunca precisa ser invalidado por alterações.
+     */
+    @Override
+    public Optional<Resource> getContent(Image image) {
+        String blobKey = image.getBlobKey();
+        if (blobKey == null) {
+            return Optional.empty();
+        }
+        accessTracker.recordAccess(image.getId());
+
+        byte[] cached = contentCache.get(blobKey, byte[].class);
+        if (cached != null) {
+            return Optional.of(new ByteArrayResource(cached));
+        }
+
+        Optional<Resource> blob = blobStore.get(blobKey);
+        // Conteúdo fora de arquivo próprio (nos segmentos) já é lido da memória mapeada, sem cópia para o cache
+        if (blob.isEmpty() || !blob.get().isFile() || image.getSize() == null || image.getSize() > maxCachedContentSize) {
+            return blob;
+        }
+        try {
+            byte[] content = blob.get().getContentAsByteArray();
+            contentCache.put(blobKey, content);
+            return Optional.of(new ByteArrayResource(content));
+        } catch (IOException e) {
+            throw new StorageException("Erro ao ler o conteúdo da imagem", e);
+        }
+    }
+
+    /**
+     * Recupera uma variante redimensionada da imagem, gerando-a e guardando-a no cache de derivados
+     * na primeira requisição. A chave do cache usa o hash do conteúdo, então imagens com o mesmo
+     * conteúdo compartilham as variantes.
+     */
+    @Override
+    public Optional<Resource> getVariant(Image image, ImageVariant variant) {
+        if (image.getBlobKey() == null) {
+            return Optional.empty();
+        }
+        accessTracker.recordAccess(image.getId());
+        // O original é lido direto do armazenamento para não ocupar o cache de conteúdo
+        var possibleContent = blobStore.get(image.getBlobKey());
+        if (possibleContent.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Resource original = possibleContent.get();
+        String key = variant.cacheKey(image.getBlobKey());
+        return Optional.of(derivativeCache.getOrCreate(key, out -> {
+            try (InputStream in = original.getInputStream()) {
+                variantRenderer.render(in, image.getExtension(), variant, out);
+            }
+        }));
+    }
+
+    /**
+     * Pesquisa imagens pela extensão, pelas tags e por um texto no nome ou nas tags.
+     * No PostgreSQL a busca usa os índices de texto e os resultados vêm ordenados por relevância;
+     * nos demais bancos é feita por LIKE.
+     * A pesquisa é paginada por chave: cada página começa após a última imagem da anterior,
+     * então o custo não cresce com o número da página.
+     */
+    @Override
+    public ImagePage search(ImageSearch search, ImageCursor after, int limit) {
+        return metrics.observeSearch(search, () -> {
+            // Uma imagem a mais indica se existe uma próxima página
+            List<ImageSummary> images = repository.search(search, after, limit + 1);
+            if (images.size() <= limit) {
+                return new ImagePage(images, null);
+            }
+            List<ImageSummary> page = images.subList(0, limit);
+            return new ImagePage(page, ImageCursor.of(page.get(limit - 1)));
+        });
+    }
+
+    /**
+     * Busca imagens visualmente parecidas com a imagem informada, pela distância entre os hashes perceptuais,
+     * usando o índice em memória. Apenas os metadados das imagens encontradas são lidos do banco.
+     *
+     * @throws IllegalStateException se a imagem ainda não tiver o hash perceptual
+     */
+    @Override
+    public List<ImageSummary> findSimilar(Image image, int maxDistance, int limit) {
+        if (image.getPerceptualHash() == null) {
+            throw new IllegalStateException("Image has not been processed yet");
+        }
+        List<SimilarImageIndex.Match> matches = similarImageIndex.search(image.getPerceptualHash(), maxDistance, limit + 1)
+                .stream()
+                .filter(match -> !match.getImageId().equals(image.getId()))
+                .limit(limit)
+                .toList();
+
+        Map<String, ImageSummary> summaries = repository.findSummaries(
+                        matches.stream().map(SimilarImageIndex.Match::getImageId).toList())
+                .stream()
+                .collect(Collectors.toMap(ImageSummary::getId, Function.identity()));
+        List<ImageSummary> similar = new ArrayList<>();
+        for (SimilarImageIndex.Match match : matches) {
+            ImageSummary summary = summaries.get(match.getImageId());
+            if (summary != null) {
+                summary.setDistance(match.getDistance());
+                similar.add(summary);
+            }
+        }
+        return similar;
     }
 
+    /**
+     * Conta as tags das imagens encontradas pela pesquisa, para filtros por tag e sugestões de tags.
+     */
     @Override
-    public List<Image> search(ImageExtension extension, String query) {
-        return repository.findByExtensionAndNameOrTagsLike(extension, query);
+    public List<TagCount> countTags(ImageSearch search, String tagPrefix, int limit) {
+        return repository.countTags(search, tagPrefix, limit);
     }
 
 }
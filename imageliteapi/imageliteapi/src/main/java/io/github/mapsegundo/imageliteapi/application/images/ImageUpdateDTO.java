@@ -0,0 +1,14 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Corpo da alteração dos metadados de uma imagem; os campos ausentes não são alterados.
+ */
+@Data
+public class ImageUpdateDTO {
+    private String name;
+    private List<String> tags;
+}
@@ -0,0 +1,16 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImageUploadResultDTO {
+    private int index;
+    private String name;
+    private int status;
+    private String url;
+    private String error;
+}
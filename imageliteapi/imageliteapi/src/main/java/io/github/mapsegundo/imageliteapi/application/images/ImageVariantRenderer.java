@@ -0,0 +1,217 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.domain.ImageVariant;
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.ResizeFit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Gera variantes de imagens (redimensionadas e/ou em outro formato) utilizando ImageIO e Java2D,
+ * sem bibliotecas nativas.
+ * O original é decodificado com subamostragem, perto do tamanho da variante, e o número de variantes
+ * geradas ao mesmo tempo é limitado, o que limita a memória ocupada pelos pixels. As conversões de formato
+ * sem redimensionamento também são limitadas a {@link ImageVariant#MAX_DIMENSION}.
+ */
+@Component
+public class ImageVariantRenderer {
+
+    /**
+     * Limite de pixels decodificados do original, verificado antes da decodificação. Com a subamostragem,
+     * o limite vale para a imagem já reduzida.
+     */
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+
+    /**
+     * Tamanho máximo das conversões de formato: originais maiores são reduzidos, como em uma variante.
+     */
+    private static final ImageVariant CONVERSION_BOUNDS = ImageVariant.of(ImageVariant.MAX_DIMENSION, ImageVariant.MAX_DIMENSION, null);
+
+    private final Semaphore renders;
+
+    public ImageVariantRenderer(@Value("${imagelite.variants.max-concurrent-renders}") int maxConcurrentRenders) {
+        this.renders = new Semaphore(maxConcurrentRenders);
+    }
+
+    /**
+     * Lê a imagem original, redimensiona conforme a variante e grava no formato da variante
+     * (o mesmo do original, se não for informado). Se o limite de variantes simultâneas foi atingido,
+     * espera uma das outras terminar.
+     *
+     * @param source    o conteúdo original
+     * @param extension o formato do original
+     * @param variant   os parâmetros da variante
+     * @param out       o destino da variante
+     * @throws IOException se a imagem não puder ser lida ou gravada
+     */
+    public void render(InputStream source, ImageExtension extension, ImageVariant variant, OutputStream out) throws IOException {
+        ImageExtension format = variant.getFormat() != null ? variant.getFormat() : extension;
+        try {
+            renders.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to render a variant");
+        }
+        try {
+            write(read(source, variant, format.isTransparency()), format, variant.getQuality(), out);
+        } finally {
+            renders.release();
+        }
+    }
+
+    private void write(BufferedImage image, ImageExtension format, Integer quality, OutputStream out) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format.getFormatName());
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer available for " + format);
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (quality != null && format.isLossy()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality / 100f);
+            }
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Lê o original e aplica a variante. O tamanho da variante é calculado pelo cabeçalho, antes da
+     * decodificação, para que os pixels sejam lidos com subamostragem.
+     */
+    private BufferedImage read(InputStream source, ImageVariant variant, boolean keepAlpha) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image content");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                Geometry geometry = geometry(sourceWidth, sourceHeight, variant.isResized() ? variant : CONVERSION_BOUNDS);
+                // A subamostragem mantém o dobro do tamanho da variante; a redução em etapas faz o restante
+                int step = Math.max(1, Math.min(sourceWidth / (2 * geometry.scaledWidth()),
+                        sourceHeight / (2 * geometry.scaledHeight())));
+                checkPixels(ceilDiv(sourceWidth, step), ceilDiv(sourceHeight, step));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return resize(reader.read(0, param), geometry, keepAlpha);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static void checkPixels(int width, int height) throws IOException {
+        if ((long) width * height > MAX_SOURCE_PIXELS) {
+            throw new IOException("Image is too large to be resized");
+        }
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * Calcula, pelo tamanho do original, o tamanho da imagem reduzida e o da variante, que é um recorte
+     * central da imagem reduzida no ajuste COVER.
+     */
+    private static Geometry geometry(int sourceWidth, int sourceHeight, ImageVariant variant) {
+        int boxWidth = variant.getWidth() != null
+                ? variant.getWidth()
+                : Math.max(1, Math.round((float) sourceWidth * variant.getHeight() / sourceHeight));
+        int boxHeight = variant.getHeight() != null
+                ? variant.getHeight()
+                : Math.max(1, Math.round((float) sourceHeight * variant.getWidth() / sourceWidth));
+
+        // Variantes nunca ampliam a imagem original
+        if (variant.getFit() == ResizeFit.FILL) {
+            int width = Math.min(boxWidth, sourceWidth);
+            int height = Math.min(boxHeight, sourceHeight);
+            return new Geometry(width, height, width, height);
+        }
+        double scaleX = (double) boxWidth / sourceWidth;
+        double scaleY = (double) boxHeight / sourceHeight;
+        double scale = variant.getFit() == ResizeFit.COVER ? Math.max(scaleX, scaleY) : Math.min(scaleX, scaleY);
+        scale = Math.min(scale, 1.0);
+        int scaledWidth = Math.max(1, (int) Math.round(sourceWidth * scale));
+        int scaledHeight = Math.max(1, (int) Math.round(sourceHeight * scale));
+        return new Geometry(scaledWidth, scaledHeight,
+                Math.min(scaledWidth, boxWidth), Math.min(scaledHeight, boxHeight));
+    }
+
+    private BufferedImage resize(BufferedImage decoded, Geometry geometry, boolean keepAlpha) {
+        BufferedImage scaled = scale(decoded, geometry.scaledWidth(), geometry.scaledHeight(), keepAlpha);
+        if (geometry.scaledWidth() == geometry.outputWidth() && geometry.scaledHeight() == geometry.outputHeight()) {
+            return scaled;
+        }
+        int x = (geometry.scaledWidth() - geometry.outputWidth()) / 2;
+        int y = (geometry.scaledHeight() - geometry.outputHeight()) / 2;
+        return scaled.getSubimage(x, y, geometry.outputWidth(), geometry.outputHeight());
+    }
+
+    /**
+     * Reduz a imagem em etapas de no máximo metade do tamanho, o que preserva a qualidade
+     * com interpolação bilinear sem o custo de um filtro mais caro.
+     * Sem transparência, as áreas transparentes do original ficam brancas; com transparência, uma imagem
+     * que já está no tamanho pedido é devolvida como está.
+     */
+    private BufferedImage scale(BufferedImage image, int width, int height, boolean keepAlpha) {
+        int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        if (keepAlpha && image.getWidth() == width && image.getHeight() == height) {
+            return image;
+        }
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+
+        do {
+            currentWidth = currentWidth / 2 >= width ? currentWidth / 2 : width;
+            currentHeight = currentHeight / 2 >= height ? currentHeight / 2 : height;
+
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D g = step.createGraphics();
+            try {
+                if (!keepAlpha) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (currentWidth != width || currentHeight != height);
+
+        return current;
+    }
+
+    private record Geometry(int scaledWidth, int scaledHeight, int outputWidth, int outputHeight) {
+    }
+}
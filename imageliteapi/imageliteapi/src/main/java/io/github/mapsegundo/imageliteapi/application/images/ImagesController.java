@@ -1,20 +1,44 @@
 package io.github.mapsegundo.imageliteapi.application.images;
 
+import io.github.mapsegundo.imageliteapi.application.jwt.TokenSubject;
+import io.github.mapsegundo.imageliteapi.domain.ImageCursor;
+import io.github.mapsegundo.imageliteapi.domain.ImagePage;
+import io.github.mapsegundo.imageliteapi.domain.ImageSearch;
+import io.github.mapsegundo.imageliteapi.domain.ImageSummary;
+import io.github.mapsegundo.imageliteapi.domain.ImageUpdate;
+import io.github.mapsegundo.imageliteapi.domain.ImageUpload;
+import io.github.mapsegundo.imageliteapi.domain.ImageUploadResult;
+import io.github.mapsegundo.imageliteapi.domain.ImageVariant;
+import io.github.mapsegundo.imageliteapi.domain.TagCount;
 import io.github.mapsegundo.imageliteapi.domain.entity.Image;
 import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.Orientation;
+import io.github.mapsegundo.imageliteapi.domain.exception.NotOwnerException;
+import io.github.mapsegundo.imageliteapi.domain.exception.QuotaExceededException;
 import io.github.mapsegundo.imageliteapi.domain.service.ImageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -30,86 +54,469 @@ public class ImagesController {
 
     private final ImageMapper mapper;
 
+    private final ImageMetrics metrics;
+
+    private final ImageFormatNegotiator formatNegotiator;
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_TAG_COUNTS = 100;
+    private static final int MAX_BATCH_FILES = 500;
+    private static final int DEFAULT_SIMILAR_DISTANCE = 10;
+    private static final int MAX_SIMILAR_DISTANCE = 20;
+    private static final int MAX_SIMILAR_IMAGES = 100;
+    private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+    static final String SAVE_DATA = "Save-Data";
+
     /**
      * Salva uma nova imagem no sistema.
      *
      * @param file O arquivo de imagem a ser salvo.
      * @param name O nome da imagem.
      * @param tags Uma lista de tags associadas à imagem.
-     * @return ResponseEntity com o status de criação e a URI da imagem salva.
+     * @param user O usuário autenticado, registrado como dono da imagem.
+     * O arquivo é enviado em streaming para o armazenamento; o formato é identificado pelo conteúdo.
+     *
+     * @return ResponseEntity com o status de criação e a URI da imagem salva, BAD_REQUEST se o formato não for suportado,
+     * ou PAYLOAD_TOO_LARGE se a imagem não couber na cota de armazenamento do usuário.
      * @throws IOException Se houver um erro ao ler o arquivo.
      */
     @PostMapping
     public ResponseEntity save(
             @RequestParam("file") MultipartFile file,
             @RequestParam("name") String name,
-            @RequestParam("tags") List<String> tags
+            @RequestParam("tags") List<String> tags,
+            @AuthenticationPrincipal TokenSubject user
     ) throws IOException {
         log.info("Imagem recebida: name: {}, size: {}", file.getOriginalFilename(), file.getSize());
 
-        Image image = mapper.mapToImage(file, name, tags);
-        Image savedImage = service.save(image);
-        URI imageUri = buildImageUrl(savedImage);
+        try {
+            Image image = mapper.mapToImage(name, tags, user.getUserId());
+            Image savedImage = service.save(image, file.getInputStream());
+            URI imageUri = buildImageUrl(savedImage.getId());
+
+            return ResponseEntity.created(imageUri).build();
+        } catch (IllegalArgumentException e) {
+            Map<String, String> jsonResponseBody = Map.of("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(jsonResponseBody);
+        } catch (QuotaExceededException e) {
+            Map<String, String> jsonResponseBody = Map.of("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(jsonResponseBody);
+        }
+    }
+
+    /**
+     * Salva várias imagens em uma única requisição, para importações em massa.
+     * O conteúdo dos arquivos é gravado em paralelo e os metadados são inseridos juntos; cada item
+     * é salvo ou rejeitado de forma independente.
+     *
+     * @param files Os arquivos de imagem, até 500.
+     * @param names Os nomes das imagens, na mesma ordem dos arquivos (opcional). Na falta do nome,
+     *              é usado o nome do arquivo sem a extensão.
+     * @param tags As tags associadas a todas as imagens do lote (opcional).
+     * @param user O usuário autenticado, registrado como dono das imagens.
+     * @return ResponseEntity com o resultado de cada item, na ordem do envio: o status (201 ou 400),
+     * a URL da imagem salva ou o motivo da falha; ou BAD_REQUEST se o lote for inválido.
+     */
+    @PostMapping("batch")
+    public ResponseEntity saveAll(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "names", required = false) List<String> names,
+            @RequestParam(value = "tags", required = false) List<String> tags,
+            @AuthenticationPrincipal TokenSubject user
+    ) {
+        log.info("Lote de imagens recebido: files: {}", files.size());
+
+        List<ImageUpload> uploads = new ArrayList<>(files.size());
+        try {
+            if (files.size() > MAX_BATCH_FILES) {
+                throw new IllegalArgumentException("A batch must have at most " + MAX_BATCH_FILES + " files");
+            }
+            for (int i = 0; i < files.size(); i++) {
+                MultipartFile file = files.get(i);
+                String name = names != null && i < names.size() && StringUtils.hasText(names.get(i))
+                        ? names.get(i)
+                        : StringUtils.stripFilenameExtension(String.valueOf(file.getOriginalFilename()));
+                uploads.add(new ImageUpload(mapper.mapToImage(name, tags, user.getUserId()), file));
+            }
+        } catch (IllegalArgumentException e) {
+            Map<String, String> jsonResponseBody = Map.of("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(jsonResponseBody);
+        }
+
+        List<ImageUploadResult> results = service.saveAll(uploads);
+        var body = results.stream().map(this::toResultDTO).collect(Collectors.toList());
+        return ResponseEntity.ok(body);
+    }
 
-        return ResponseEntity.created(imageUri).build();
+    private ImageUploadResultDTO toResultDTO(ImageUploadResult result) {
+        return ImageUploadResultDTO.builder()
+                .index(result.getIndex())
+                .name(result.getName())
+                .status(result.isSaved() ? HttpStatus.CREATED.value() : HttpStatus.BAD_REQUEST.value())
+                .url(result.isSaved() ? buildImageUrl(result.getImageId()).toString() : null)
+                .error(result.getError())
+                .build();
     }
 
     /**
      * Recupera uma imagem pelo seu ID.
+     * O conteúdo é enviado em streaming a partir do armazenamento, sem ser carregado em memória,
+     * e requisições com o cabeçalho {@code Range} são respondidas com {@code 206 Partial Content}.
+     * Quando largura e/ou altura são informadas, é retornada uma variante redimensionada da imagem.
+     * A resposta traz um ETag com o hash do conteúdo; requisições condicionais ({@code If-None-Match}
+     * ou {@code If-Modified-Since}) são respondidas com {@code 304 Not Modified} sem ler o armazenamento.
+     * O formato servido é negociado pelos cabeçalhos {@code Accept} e {@code Save-Data}, ou escolhido
+     * pelos parâmetros format e quality; veja {@link ImageFormatNegotiator}.
      *
      * @param id O ID da imagem a ser recuperada.
+     * @param width A largura da variante (opcional).
+     * @param height A altura da variante (opcional).
+     * @param fit O modo de ajuste da variante: contain, cover ou fill (opcional).
+     * @param format O formato da resposta: png, gif ou jpeg (opcional).
+     * @param quality A qualidade de 1 a 100 da resposta em JPEG (opcional).
+     * @param request A requisição, usada para avaliar os cabeçalhos condicionais e negociar o formato.
      * @return ResponseEntity contendo os dados da imagem e cabeçalhos apropriados se encontrada, ou um status de não encontrado.
      */
     @GetMapping("{id}")
-    private ResponseEntity<byte[]> getImage(@PathVariable String id) {
+    private ResponseEntity getImage(
+            @PathVariable String id,
+            @RequestParam(value = "w", required = false) Integer width,
+            @RequestParam(value = "h", required = false) Integer height,
+            @RequestParam(value = "fit", required = false) String fit,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestParam(value = "quality", required = false) Integer quality,
+            WebRequest request) {
+
+        ImageVariant variant = null;
+        if (width != null || height != null) {
+            try {
+                variant = ImageVariant.of(width, height, fit);
+            } catch (IllegalArgumentException e) {
+                Map<String, String> jsonResponseBody = Map.of("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(jsonResponseBody);
+            }
+        }
+
         var possibleImage = service.getById(id);
         if (possibleImage.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         var image = possibleImage.get();
+        if (image.getBlobKey() == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            variant = formatNegotiator.negotiate(image, variant, format, quality,
+                    request.getHeader(HttpHeaders.ACCEPT), request.getHeader(SAVE_DATA));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> jsonResponseBody = Map.of("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(jsonResponseBody);
+        }
+        ImageExtension contentFormat = variant != null && variant.getFormat() != null
+                ? variant.getFormat()
+                : image.getExtension();
+
+        // O hash do conteúdo identifica os bytes servidos; a variante acrescenta seus parâmetros
+        String etag = "\"" + (variant == null ? image.getBlobKey() : variant.cacheKey(image.getBlobKey())) + "\"";
+        long lastModified = lastModified(image);
+        CacheControl cacheControl = cacheControl(image);
+        if (request.checkNotModified(etag, lastModified)) {
+            // ETag e Last-Modified já são incluídos na resposta pelo checkNotModified
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT, SAVE_DATA)
+                    .build();
+        }
 
+        var possibleContent = variant == null ? service.getContent(image) : service.getVariant(image, variant);
+        if (possibleContent.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // O Content-Length é definido pelo conversor a partir do recurso (ou da faixa solicitada)
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(image.getExtension().getMediaType());
-        headers.setContentLength(image.getSize());
-        headers.setContentDispositionFormData("inline; filename=\"" + image.getFileName() + "\"", image.getFileName());
+        headers.setContentType(contentFormat.getMediaType());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // A mesma URL pode ter conteúdos diferentes conforme os cabeçalhos da negociação
+        headers.setVary(List.of(HttpHeaders.ACCEPT, SAVE_DATA));
+        headers.setETag(etag);
+        headers.setCacheControl(cacheControl);
+        if (lastModified > 0) {
+            headers.setLastModified(lastModified);
+        }
+        String fileName = image.getName() + "." + contentFormat.name();
+        headers.setContentDispositionFormData("inline; filename=\"" + fileName + "\"", fileName);
+
+        recordDownloadSize(possibleContent.get(), variant, request);
+        return new ResponseEntity<>(possibleContent.get(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * Registra nas métricas o tamanho do conteúdo servido. Requisições parciais ({@code Range}) não são
+     * registradas, pois apenas uma faixa do conteúdo é enviada.
+     */
+    private void recordDownloadSize(Resource content, ImageVariant variant, WebRequest request) {
+        if (request.getHeader(HttpHeaders.RANGE) != null) {
+            return;
+        }
+        try {
+            String kind = variant == null ? "original" : variant.isResized() ? "resized" : "converted";
+            metrics.recordDownloadSize(kind, content.contentLength());
+        } catch (IOException e) {
+            log.debug("Tamanho do conteúdo indisponível para as métricas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Define o cache da resposta de uma imagem. Depois do processamento o conteúdo de uma imagem não muda,
+     * então pode ficar em cache indefinidamente; antes disso a remoção de metadados ainda pode alterá-lo,
+     * e o cache precisa revalidar a cada uso.
+     *
+     * @param image A imagem servida.
+     * @return O Cache-Control da resposta.
+     */
+    static CacheControl cacheControl(Image image) {
+        if (image.getProcessingStatus() != null && image.getProcessingStatus().isFinished()) {
+            return CacheControl.maxAge(IMMUTABLE_MAX_AGE).cachePublic().immutable();
+        }
+        return CacheControl.noCache();
+    }
+
+    /**
+     * Data de modificação da imagem para o cabeçalho Last-Modified, informada apenas quando o conteúdo
+     * não muda mais.
+     *
+     * @param image A imagem servida.
+     * @return A data em milissegundos, ou -1 se não deve ser informada.
+     */
+    static long lastModified(Image image) {
+        if (image.getProcessingStatus() == null || !image.getProcessingStatus().isFinished()
+                || image.getUploadDate() == null) {
+            return -1;
+        }
+        return image.getUploadDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
 
-        return new ResponseEntity<>(image.getFile(), headers, HttpStatus.OK);
+    /**
+     * Altera o nome e/ou as tags de uma imagem. O conteúdo não muda, então as URLs e ETags do conteúdo
+     * continuam válidas.
+     *
+     * @param id O ID da imagem a ser alterada.
+     * @param dto Os novos valores; os campos ausentes não são alterados.
+     * @param user O usuário autenticado, que deve ser o dono da imagem.
+     * @return ResponseEntity contendo os metadados atualizados da imagem, NOT_FOUND se a imagem não existir,
+     * FORBIDDEN se pertencer a outro usuário ou não tiver dono, ou BAD_REQUEST se os valores forem inválidos.
+     */
+    @PatchMapping("{id}")
+    public ResponseEntity update(@PathVariable String id, @RequestBody ImageUpdateDTO dto,
+                                 @AuthenticationPrincipal TokenSubject user) {
+        ImageUpdate update;
+        try {
+            update = mapper.mapToUpdate(dto);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> jsonResponseBody = Map.of("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(jsonResponseBody);
+        }
+
+        Optional<Image> possibleImage;
+        try {
+            possibleImage = service.update(id, user.getUserId(), update);
+        } catch (NotOwnerException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (possibleImage.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        var url = buildImageUrl(id);
+        return ResponseEntity.ok(mapper.imageToDTO(possibleImage.get(), url.toString(), buildThumbnailUrl(url).toString()));
+    }
+
+    /**
+     * Exclui uma imagem. A resposta não espera a remoção do conteúdo, que é feita depois, em segundo plano,
+     * quando nenhuma outra imagem usa o mesmo conteúdo.
+     *
+     * @param id O ID da imagem a ser excluída.
+     * @param user O usuário autenticado, que deve ser o dono da imagem.
+     * @return ResponseEntity com o status NO_CONTENT, NOT_FOUND se a imagem não existir, ou FORBIDDEN se
+     * pertencer a outro usuário ou não tiver dono.
+     */
+    @DeleteMapping("{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id, @AuthenticationPrincipal TokenSubject user) {
+        try {
+            if (!service.delete(id, user.getUserId())) {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (NotOwnerException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.noContent().build();
     }
 
     /**
-     * Pesquisa imagens com base na extensão e/ou consulta.
+     * Pesquisa imagens com base na extensão, nas tags e/ou consulta.
+     * O resultado é paginado; quando houver mais imagens, a resposta traz o cabeçalho {@code Link}
+     * com a URL da próxima página ({@code rel="next"}).
      *
      * @param extension A extensão do arquivo para filtrar imagens (opcional).
      * @param query A consulta de pesquisa para filtrar imagens (opcional).
-     * @return ResponseEntity contendo uma lista de objetos ImageDTO que correspondem aos critérios de pesquisa.
+     * @param tags As tags que as imagens devem possuir (opcional, pode ser repetido).
+     * @param minWidth A largura mínima das imagens, em pixels (opcional).
+     * @param minHeight A altura mínima das imagens, em pixels (opcional).
+     * @param orientation A orientação das imagens: landscape, portrait ou square (opcional).
+     * @param cursor O cursor da página, recebido no link da página anterior (opcional).
+     * @param size A quantidade de imagens por página, até 100.
+     * @return ResponseEntity contendo uma lista de objetos ImageDTO que correspondem aos critérios de pesquisa,
+     * ou BAD_REQUEST se o cursor for inválido.
      */
     @GetMapping
-    public ResponseEntity<List<ImageDTO>> search(
+    public ResponseEntity search(
             @RequestParam(value = "extension", required = false, defaultValue = "") String extension,
-            @RequestParam(value = "query", required = false) String query) {
+            @RequestParam(value = "query", required = false) String query,
+            @RequestParam(value = "tag", required = false) List<String> tags,
+            @RequestParam(value = "minWidth", required = false) Integer minWidth,
+            @RequestParam(value = "minHeight", required = false) Integer minHeight,
+            @RequestParam(value = "orientation", required = false) String orientation,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
 
-        var result = service.search(ImageExtension.ofName(extension), query);
+        ImagePage page;
+        try {
+            ImageCursor after = StringUtils.hasText(cursor) ? ImageCursor.decode(cursor) : null;
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            page = service.search(buildSearch(extension, query, tags, minWidth, minHeight, orientation), after, pageSize);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> jsonResponseBody = Map.of("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(jsonResponseBody);
+        }
 
-        var images = result.stream().map(image -> {
-            var url = buildImageUrl(image);
-            return mapper.imageToDTO(image, url.toString());
+        var images = page.getImages().stream().map(image -> {
+            var url = buildImageUrl(image.getId());
+            var thumbnailUrl = buildThumbnailUrl(url);
+            return mapper.summaryToDTO(image, url.toString(), thumbnailUrl.toString());
         }).collect(Collectors.toList());
 
+        var response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            String nextPage = ServletUriComponentsBuilder
+                    .fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNext().encode())
+                    .build(true)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"");
+        }
+        return response.body(images);
+    }
+
+    /**
+     * Busca imagens visualmente parecidas com uma imagem, como cópias redimensionadas, recomprimidas
+     * ou com pequenas edições. A semelhança é medida pela distância entre os hashes perceptuais:
+     * 0 para imagens praticamente idênticas, até cerca de 10 para variações da mesma imagem.
+     *
+     * @param id O ID da imagem consultada.
+     * @param distance A distância máxima, até 20.
+     * @param limit A quantidade máxima de imagens retornadas, até 100.
+     * @return ResponseEntity contendo as imagens parecidas, das mais parecidas para as menos parecidas;
+     * NOT_FOUND se a imagem não existir, ou CONFLICT se ainda não tiver sido processada.
+     */
+    @GetMapping("{id}/similar")
+    public ResponseEntity findSimilar(
+            @PathVariable String id,
+            @RequestParam(value = "distance", required = false, defaultValue = "" + DEFAULT_SIMILAR_DISTANCE) int distance,
+            @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
+
+        var possibleImage = service.getById(id);
+        if (possibleImage.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        List<ImageSummary> similar;
+        try {
+            similar = service.findSimilar(possibleImage.get(),
+                    Math.max(0, Math.min(distance, MAX_SIMILAR_DISTANCE)),
+                    Math.max(1, Math.min(limit, MAX_SIMILAR_IMAGES)));
+        } catch (IllegalStateException e) {
+            Map<String, String> jsonResponseBody = Map.of("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(jsonResponseBody);
+        }
+
+        var images = similar.stream().map(image -> {
+            var url = buildImageUrl(image.getId());
+            var thumbnailUrl = buildThumbnailUrl(url);
+            return mapper.summaryToDTO(image, url.toString(), thumbnailUrl.toString());
+        }).collect(Collectors.toList());
         return ResponseEntity.ok(images);
     }
 
+    /**
+     * Conta as tags das imagens que correspondem a uma pesquisa, das mais frequentes para as menos frequentes.
+     * Serve para montar filtros por tag e, com o prefixo, para sugerir tags enquanto o usuário digita.
+     *
+     * @param extension A extensão do arquivo para filtrar imagens (opcional).
+     * @param query A consulta de pesquisa para filtrar imagens (opcional).
+     * @param tags As tags que as imagens devem possuir (opcional, pode ser repetido).
+     * @param minWidth A largura mínima das imagens, em pixels (opcional).
+     * @param minHeight A altura mínima das imagens, em pixels (opcional).
+     * @param orientation A orientação das imagens: landscape, portrait ou square (opcional).
+     * @param prefix O prefixo das tags retornadas (opcional).
+     * @param limit A quantidade máxima de tags retornadas, até 100.
+     * @return ResponseEntity contendo as tags e a quantidade de imagens de cada uma.
+     */
+    @GetMapping("tags")
+    public ResponseEntity<List<TagCount>> countTags(
+            @RequestParam(value = "extension", required = false, defaultValue = "") String extension,
+            @RequestParam(value = "query", required = false) String query,
+            @RequestParam(value = "tag", required = false) List<String> tags,
+            @RequestParam(value = "minWidth", required = false) Integer minWidth,
+            @RequestParam(value = "minHeight", required = false) Integer minHeight,
+            @RequestParam(value = "orientation", required = false) String orientation,
+            @RequestParam(value = "prefix", required = false) String prefix,
+            @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
+
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_TAG_COUNTS));
+        return ResponseEntity.ok(service.countTags(buildSearch(extension, query, tags, minWidth, minHeight, orientation), prefix, boundedLimit));
+    }
+
+    private ImageSearch buildSearch(String extension, String query, List<String> tags,
+                                    Integer minWidth, Integer minHeight, String orientation) {
+        return ImageSearch.builder()
+                .extension(ImageExtension.ofName(extension))
+                .query(query)
+                .tags(mapper.normalizeTags(tags))
+                .minWidth(minWidth)
+                .minHeight(minHeight)
+                .orientation(Orientation.ofName(orientation))
+                .build();
+    }
+
     /**
      * Constrói a URL para acessar uma imagem.
      *
-     * @param image O objeto Image para o qual construir a URL.
+     * @param imageId O ID da imagem para a qual construir a URL.
      * @return URI representando a URL para acessar a imagem.
      */
-    private URI buildImageUrl(Image image) {
-        String imagePath = "/" + image.getId();
+    private URI buildImageUrl(String imageId) {
         return ServletUriComponentsBuilder
-                .fromCurrentRequestUri()
-                .path(imagePath)
+                .fromCurrentContextPath()
+                .path("/v1/images/{id}")
+                .buildAndExpand(imageId)
+                .toUri();
+    }
+
+    /**
+     * Constrói a URL da miniatura de uma imagem, usada nas listagens.
+     *
+     * @param imageUri A URI da imagem original.
+     * @return URI representando a URL da variante em miniatura.
+     */
+    static URI buildThumbnailUrl(URI imageUri) {
+        return UriComponentsBuilder
+                .fromUri(imageUri)
+                .queryParam("w", ImageVariant.THUMBNAIL.getWidth())
+                .queryParam("h", ImageVariant.THUMBNAIL.getHeight())
+                .queryParam("fit", ImageVariant.THUMBNAIL.getFit().name().toLowerCase())
                 .build()
                 .toUri();
     }
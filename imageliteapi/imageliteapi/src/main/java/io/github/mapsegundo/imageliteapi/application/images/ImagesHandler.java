@@ -0,0 +1,292 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.application.jwt.TokenSubject;
+import io.github.mapsegundo.imageliteapi.domain.ImageCursor;
+import io.github.mapsegundo.imageliteapi.domain.ImageSearch;
+import io.github.mapsegundo.imageliteapi.domain.ImageSummary;
+import io.github.mapsegundo.imageliteapi.domain.ImageVariant;
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.Orientation;
+import io.github.mapsegundo.imageliteapi.domain.exception.QuotaExceededException;
+import io.github.mapsegundo.imageliteapi.domain.service.ImageService;
+import io.github.mapsegundo.imageliteapi.infra.repository.ReactiveImageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.codec.multipart.FormFieldPart;
+import org.springframework.http.codec.multipart.Part;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Handlers da API reativa de imagens ({@code /v2/images}), equivalentes aos endpoints de envio, download
+ * e pesquisa do {@link ImagesController}. Nenhuma thread fica presa a um cliente lento: o corpo dos envios
+ * é gravado em disco conforme chega e os downloads são escritos à medida que o cliente os consome.
+ * As etapas que bloqueiam (gravação no armazenamento, geração de variantes, restauração de blobs arquivados)
+ * rodam no scheduler {@code boundedElastic}; as consultas usam o {@link ReactiveImageRepository}.
+ */
+@Component
+@ConditionalOnProperty(name = "imagelite.reactive.enabled", havingValue = "true")
+@Slf4j
+@RequiredArgsConstructor
+public class ImagesHandler {
+
+    private static final String PATH = "/v2/images/{id}";
+
+    private final ImageService service;
+
+    private final ReactiveImageRepository repository;
+
+    private final ImageMapper mapper;
+
+    private final ImageMetrics metrics;
+
+    private final ImageFormatNegotiator formatNegotiator;
+
+    /**
+     * Salva uma nova imagem; veja {@link ImagesController#save}. O arquivo é recebido em um arquivo
+     * temporário e então gravado no armazenamento pelo {@link ImageService}.
+     */
+    public Mono<ServerResponse> save(ServerRequest request) {
+        return request.principal().map(ImagesHandler::ownerOf).defaultIfEmpty(Optional.empty())
+                .zipWith(request.multipartData())
+                .flatMap(tuple -> save(request, tuple.getT1().orElse(null), tuple.getT2()))
+                .onErrorResume(IllegalArgumentException.class, e -> badRequest(e.getMessage()))
+                .onErrorResume(QuotaExceededException.class, e -> ServerResponse.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                        .bodyValue(Map.of("error", e.getMessage())))
+                .onErrorResume(DataBufferLimitException.class, e -> ServerResponse.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+    }
+
+    private Mono<ServerResponse> save(ServerRequest request, String ownerId, MultiValueMap<String, Part> parts) {
+        if (!(parts.getFirst("file") instanceof FilePart file)) {
+            return badRequest("Required part 'file' is not present");
+        }
+        String name = valueOf(parts.getFirst("name"));
+        List<Part> tagParts = parts.get("tags");
+        if (name == null || tagParts == null) {
+            return badRequest("Required parts 'name' and 'tags' are not present");
+        }
+        log.info("Imagem recebida: name: {}", file.filename());
+
+        Image image;
+        try {
+            image = mapper.mapToImage(name, tagParts.stream().map(ImagesHandler::valueOf).toList(), ownerId);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        return Mono.fromCallable(() -> Files.createTempFile("upload-", ".part"))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(temp -> file.transferTo(temp)
+                        .then(Mono.fromCallable(() -> saveFrom(image, temp)).subscribeOn(Schedulers.boundedElastic()))
+                        .doFinally(signal -> deleteQuietly(temp)))
+                .flatMap(saved -> ServerResponse.created(buildImageUrl(request, saved.getId())).build());
+    }
+
+    /**
+     * O id do usuário autenticado, registrado como dono das imagens enviadas.
+     */
+    private static Optional<String> ownerOf(Principal principal) {
+        return principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof TokenSubject user
+                ? Optional.ofNullable(user.getUserId())
+                : Optional.empty();
+    }
+
+    private Image saveFrom(Image image, Path content) throws IOException {
+        try (InputStream in = Files.newInputStream(content)) {
+            return service.save(image, in);
+        }
+    }
+
+    /**
+     * Recupera uma imagem pelo seu ID; veja {@link ImagesController#getImage}. Os mesmos parâmetros e
+     * cabeçalhos são aceitos, inclusive {@code Range} e as requisições condicionais. Conteúdo em arquivo
+     * é enviado direto do arquivo para o socket.
+     */
+    public Mono<ServerResponse> getImage(ServerRequest request) {
+        ImageVariant requested = null;
+        Integer quality;
+        try {
+            Integer width = intParam(request, "w");
+            Integer height = intParam(request, "h");
+            if (width != null || height != null) {
+                requested = ImageVariant.of(width, height, request.queryParam("fit").orElse(null));
+            }
+            quality = intParam(request, "quality");
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+
+        ImageVariant variant = requested;
+        return repository.findById(request.pathVariable("id"))
+                .filter(image -> image.getBlobKey() != null)
+                .flatMap(image -> serve(request, image, variant, quality))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+
+    private Mono<ServerResponse> serve(ServerRequest request, Image image, ImageVariant requested, Integer quality) {
+        HttpHeaders requestHeaders = request.headers().asHttpHeaders();
+        ImageVariant variant;
+        try {
+            variant = formatNegotiator.negotiate(image, requested, request.queryParam("format").orElse(null), quality,
+                    requestHeaders.getFirst(HttpHeaders.ACCEPT), requestHeaders.getFirst(ImagesController.SAVE_DATA));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        ImageExtension contentFormat = variant != null && variant.getFormat() != null
+                ? variant.getFormat()
+                : image.getExtension();
+
+        String etag = "\"" + (variant == null ? image.getBlobKey() : variant.cacheKey(image.getBlobKey())) + "\"";
+        long lastModified = ImagesController.lastModified(image);
+        CacheControl cacheControl = ImagesController.cacheControl(image);
+        boolean notModified = lastModified > 0
+                ? request.exchange().checkNotModified(etag, Instant.ofEpochMilli(lastModified))
+                : request.exchange().checkNotModified(etag);
+        if (notModified) {
+            // ETag e Last-Modified já são incluídos na resposta pelo checkNotModified
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT, ImagesController.SAVE_DATA)
+                    .build();
+        }
+
+        return Mono.fromCallable(() -> variant == null ? service.getContent(image) : service.getVariant(image, variant))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(possibleContent -> {
+                    if (possibleContent.isEmpty()) {
+                        return ServerResponse.notFound().build();
+                    }
+                    Resource content = possibleContent.get();
+                    recordDownloadSize(content, variant, requestHeaders);
+                    String fileName = image.getName() + "." + contentFormat.name();
+                    // O Content-Length, o Accept-Ranges e a resposta parcial ficam com o ResourceHttpMessageWriter
+                    return ServerResponse.ok()
+                            .contentType(contentFormat.getMediaType())
+                            .varyBy(HttpHeaders.ACCEPT, ImagesController.SAVE_DATA)
+                            .eTag(etag)
+                            .cacheControl(cacheControl)
+                            .headers(headers -> {
+                                if (lastModified > 0) {
+                                    headers.setLastModified(lastModified);
+                                }
+                                headers.setContentDispositionFormData("inline; filename=\"" + fileName + "\"", fileName);
+                            })
+                            .body(BodyInserters.fromResource(content));
+                });
+    }
+
+    private void recordDownloadSize(Resource content, ImageVariant variant, HttpHeaders requestHeaders) {
+        if (requestHeaders.getFirst(HttpHeaders.RANGE) != null) {
+            return;
+        }
+        try {
+            String kind = variant == null ? "original" : variant.isResized() ? "resized" : "converted";
+            metrics.recordDownloadSize(kind, content.contentLength());
+        } catch (IOException e) {
+            log.debug("Tamanho do conteúdo indisponível para as métricas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pesquisa imagens; veja {@link ImagesController#search}. O link da próxima página aponta para a API reativa.
+     */
+    public Mono<ServerResponse> search(ServerRequest request) {
+        ImageSearch search;
+        ImageCursor after;
+        int pageSize;
+        try {
+            Optional<String> cursor = request.queryParam("cursor").filter(StringUtils::hasText);
+            after = cursor.isPresent() ? ImageCursor.decode(cursor.get()) : null;
+            int size = Optional.ofNullable(intParam(request, "size")).orElse(ImagesController.DEFAULT_PAGE_SIZE);
+            pageSize = Math.max(1, Math.min(size, ImagesController.MAX_PAGE_SIZE));
+            search = ImageSearch.builder()
+                    .extension(ImageExtension.ofName(request.queryParam("extension").orElse("")))
+                    .query(request.queryParam("query").orElse(null))
+                    .tags(mapper.normalizeTags(request.queryParams().get("tag")))
+                    .minWidth(intParam(request, "minWidth"))
+                    .minHeight(intParam(request, "minHeight"))
+                    .orientation(Orientation.ofName(request.queryParam("orientation").orElse(null)))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+
+        // Uma imagem a mais indica se existe uma próxima página
+        return repository.search(search, after, pageSize + 1)
+                .collectList()
+                .flatMap(images -> {
+                    List<ImageSummary> page = images.size() > pageSize ? images.subList(0, pageSize) : images;
+                    var body = page.stream().map(image -> {
+                        var url = buildImageUrl(request, image.getId());
+                        var thumbnailUrl = ImagesController.buildThumbnailUrl(url);
+                        return mapper.summaryToDTO(image, url.toString(), thumbnailUrl.toString());
+                    }).toList();
+
+                    var response = ServerResponse.ok();
+                    if (images.size() > pageSize) {
+                        String nextPage = UriComponentsBuilder.fromUri(request.uri())
+                                .replaceQueryParam("cursor", ImageCursor.of(page.get(pageSize - 1)).encode())
+                                .build(true)
+                                .toUriString();
+                        response.header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"");
+                    }
+                    return response.bodyValue(body);
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> badRequest(e.getMessage()));
+    }
+
+    private static URI buildImageUrl(ServerRequest request, String imageId) {
+        return UriComponentsBuilder.fromUri(request.uri())
+                .replacePath(PATH)
+                .replaceQuery(null)
+                .buildAndExpand(imageId)
+                .toUri();
+    }
+
+    private static Integer intParam(ServerRequest request, String name) {
+        return request.queryParam(name).filter(StringUtils::hasText).map(Integer::valueOf).orElse(null);
+    }
+
+    private static String valueOf(Part part) {
+        return part instanceof FormFieldPart field ? field.value() : null;
+    }
+
+    private static Mono<ServerResponse> badRequest(String message) {
+        return ServerResponse.badRequest().bodyValue(Map.of("error", String.valueOf(message)));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o arquivo temporário {}: {}", path, e.getMessage());
+        }
+    }
+}
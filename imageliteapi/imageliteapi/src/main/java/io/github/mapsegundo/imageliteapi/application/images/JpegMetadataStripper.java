@@ -0,0 +1,136 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Remove metadados (EXIF, XMP, IPTC e comentários) de um JPEG copiando os segmentos sem decodificar a imagem,
+ * portanto sem perda de qualidade. A orientação do EXIF é preservada em um segmento EXIF mínimo,
+ * já que sem ela fotos de câmeras e celulares seriam exibidas rotacionadas.
+ */
+public class JpegMetadataStripper {
+
+    private static final int SOI = 0xD8;
+    private static final int SOS = 0xDA;
+    private static final int APP1 = 0xE1;
+    private static final int APP13 = 0xED;
+    private static final int COM = 0xFE;
+
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] XMP_HEADER = "http://ns.adobe.com/xap/1.0/\0".getBytes(StandardCharsets.ISO_8859_1);
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private JpegMetadataStripper() {
+    }
+
+    /**
+     * Copia o JPEG de {@code in} para {@code out} sem os segmentos de metadados.
+     *
+     * @param in  o JPEG original
+     * @param out o destino do JPEG sem metadados
+     * @return true se algum segmento foi removido
+     * @throws IOException se o conteúdo não for um JPEG válido ou houver erro de leitura/escrita
+     */
+    public static boolean strip(InputStream in, OutputStream out) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readUnsignedByte() != 0xFF || data.readUnsignedByte() != SOI) {
+            throw new IOException("Not a JPEG stream");
+        }
+        out.write(0xFF);
+        out.write(SOI);
+
+        boolean modified = false;
+        while (true) {
+            int marker = nextMarker(data);
+            if (marker == SOS || marker < 0xC0 || marker == 0xD9) {
+                // A partir do início dos dados comprimidos o restante é copiado sem alteração
+                out.write(0xFF);
+                out.write(marker);
+                data.transferTo(out);
+                return modified;
+            }
+
+            int length = data.readUnsignedShort();
+            if (length < 2) {
+                throw new IOException("Invalid JPEG segment length");
+            }
+            byte[] payload = new byte[length - 2];
+            data.readFully(payload);
+
+            if (marker == APP1 && startsWith(payload, EXIF_HEADER)) {
+                modified = true;
+                int orientation = readOrientation(payload);
+                if (orientation > 1) {
+                    writeOrientationOnlyExif(out, orientation);
+                }
+            } else if ((marker == APP1 && startsWith(payload, XMP_HEADER)) || marker == APP13 || marker == COM) {
+                modified = true;
+            } else {
+                out.write(0xFF);
+                out.write(marker);
+                out.write(length >> 8);
+                out.write(length & 0xFF);
+                out.write(payload);
+            }
+        }
+    }
+
+    private static int nextMarker(DataInputStream data) throws IOException {
+        int b = data.readUnsignedByte();
+        if (b != 0xFF) {
+            throw new IOException("Invalid JPEG marker");
+        }
+        // Bytes 0xFF consecutivos são preenchimento permitido antes do marcador
+        while (b == 0xFF) {
+            b = data.readUnsignedByte();
+        }
+        return b;
+    }
+
+    private static boolean startsWith(byte[] payload, byte[] header) {
+        return payload.length >= header.length
+                && Arrays.equals(payload, 0, header.length, header, 0, header.length);
+    }
+
+    /**
+     * Lê a tag de orientação do IFD0 do EXIF.
+     *
+     * @return a orientação, ou 1 (normal) se ausente ou ilegível
+     */
+    private static int readOrientation(byte[] payload) {
+        try {
+            ByteBuffer tiff = ByteBuffer.wrap(payload, EXIF_HEADER.length, payload.length - EXIF_HEADER.length).slice();
+            tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+            int ifd = tiff.getInt(4);
+            int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+                    return Short.toUnsignedInt(tiff.getShort(entry + 8));
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // EXIF corrompido: a orientação é tratada como normal
+        }
+        return 1;
+    }
+
+    private static void writeOrientationOnlyExif(OutputStream out, int orientation) throws IOException {
+        ByteBuffer segment = ByteBuffer.allocate(36).order(ByteOrder.BIG_ENDIAN);
+        segment.put((byte) 0xFF).put((byte) APP1).putShort((short) 34);
+        segment.put(EXIF_HEADER);
+        // Cabeçalho TIFF big-endian com o IFD0 logo em seguida
+        segment.put((byte) 'M').put((byte) 'M').putShort((short) 0x2A).putInt(8);
+        segment.putShort((short) 1);
+        segment.putShort((short) ORIENTATION_TAG).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        segment.putInt(0);
+        out.write(segment.array());
+    }
+
+}
@@ -0,0 +1,111 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Hash perceptual (dHash) de 64 bits: a imagem é reduzida a 9x8 blocos em tons de cinza e cada bit indica
+ * se um bloco é mais escuro que o vizinho à direita. Imagens visualmente parecidas (redimensionadas,
+ * recomprimidas ou com pequenas edições) têm hashes a poucos bits de distância.
+ */
+public class PerceptualHash {
+
+    private static final int COLUMNS = 9;
+    private static final int ROWS = 8;
+
+    /**
+     * Menor lado da imagem decodificada. A decodificação pula pixels até esse tamanho,
+     * o que basta para a média dos blocos e evita carregar a imagem inteira em memória.
+     */
+    private static final int SAMPLE_SIZE = 128;
+
+    private PerceptualHash() {
+    }
+
+    /**
+     * Calcula o hash perceptual da imagem.
+     *
+     * @param in o conteúdo da imagem
+     * @return o hash
+     * @throws IOException se a imagem não puder ser lida
+     */
+    public static long dHash(InputStream in) throws IOException {
+        return dHash(readSample(in));
+    }
+
+    static long dHash(BufferedImage image) {
+        double[][] blocks = blockLuminance(image);
+        long hash = 0;
+        for (int y = 0; y < ROWS; y++) {
+            for (int x = 0; x < COLUMNS - 1; x++) {
+                hash <<= 1;
+                if (blocks[y][x] < blocks[y][x + 1]) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Quantidade de bits diferentes entre dois hashes (distância de Hamming).
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /**
+     * Luminância média de cada bloco da grade, calculada pela média de todos os pixels do bloco.
+     */
+    private static double[][] blockLuminance(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[][] sums = new double[ROWS][COLUMNS];
+        int[][] counts = new int[ROWS][COLUMNS];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            int blockY = y * ROWS / height;
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                int blockX = x * COLUMNS / width;
+                int rgb = row[x];
+                sums[blockY][blockX] += 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+                counts[blockY][blockX]++;
+            }
+        }
+        for (int y = 0; y < ROWS; y++) {
+            for (int x = 0; x < COLUMNS; x++) {
+                sums[y][x] = counts[y][x] == 0 ? 0 : sums[y][x] / counts[y][x];
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * Decodifica uma amostra reduzida da imagem, com o menor lado próximo de {@link #SAMPLE_SIZE}.
+     */
+    static BufferedImage readSample(InputStream in) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image content");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int step = Math.max(1, Math.min(reader.getWidth(0), reader.getHeight(0)) / SAMPLE_SIZE);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.infra.repository.ImageRepository;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos hashes perceptuais das imagens, para buscar imagens parecidas sem comparar
+ * a imagem consultada com todas as outras.
+ * <p>
+ * O índice é uma BK-tree: cada filho de um nó fica na posição da sua distância até o nó, então pela
+ * desigualdade triangular a busca só desce pelos filhos a até {@code d ± raio} da consulta e descarta
+ * o restante da árvore. O índice é carregado do banco na inicialização e atualizado à medida que as
+ * imagens são processadas ou excluídas nesta instância.
+ * <p>
+ * Com várias instâncias, as imagens processadas ou excluídas nas outras só chegam ao índice na recarga
+ * periódica, que reconstrói a árvore a partir do banco e a troca pela atual. A recarga também descarta
+ * os nós que ficaram vazios com as exclusões.
+ */
+@Component
+@Slf4j
+public class SimilarImageIndex implements ApplicationRunner {
+
+    private final ImageRepository repository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Tree tree = new Tree();
+
+    public SimilarImageIndex(ImageRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Índice de imagens parecidas carregado: {} imagens", refresh());
+    }
+
+    /**
+     * Reconstrói o índice a partir dos hashes gravados no banco. A nova árvore é montada fora da trava;
+     * uma imagem processada nesta instância durante a montagem pode ficar de fora até a próxima recarga.
+     *
+     * @return a quantidade de imagens indexadas
+     */
+    @Scheduled(fixedDelayString = "${imagelite.similar.refresh-interval}",
+            initialDelayString = "${imagelite.similar.refresh-interval}")
+    public int refresh() {
+        Tree loaded = new Tree();
+        repository.findPerceptualHashes().forEach(row -> loaded.add((String) row[0], (Long) row[1]));
+        lock.writeLock().lock();
+        try {
+            tree = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return loaded.hashes.size();
+    }
+
+    /**
+     * Inclui a imagem no índice, substituindo o hash anterior se ela já estiver indexada.
+     */
+    public void add(String imageId, long hash) {
+        lock.writeLock().lock();
+        try {
+            tree.add(imageId, hash);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onImageDeleted(ImageDeletedEvent event) {
+        remove(event.getImageId());
+    }
+
+    /**
+     * Remove a imagem do índice. O nó permanece na árvore, pois os filhos dependem da sua posição.
+     */
+    public void remove(String imageId) {
+        lock.writeLock().lock();
+        try {
+            tree.remove(imageId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca as imagens cujo hash está a até {@code maxDistance} bits do hash informado.
+     *
+     * @param hash        o hash da imagem consultada
+     * @param maxDistance a distância de Hamming máxima
+     * @param limit       a quantidade máxima de imagens retornadas
+     * @return as imagens encontradas, das mais parecidas para as menos parecidas
+     */
+    public List<Match> search(long hash, int maxDistance, int limit) {
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (tree.root == null) {
+                return matches;
+            }
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(tree.root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int distance = PerceptualHash.distance(hash, node.hash);
+                if (distance <= maxDistance) {
+                    node.ids.forEach(id -> matches.add(new Match(id, distance)));
+                }
+                for (int i = 0; i < node.childCount; i++) {
+                    if (Math.abs(node.childDistances[i] - distance) <= maxDistance) {
+                        pending.push(node.children[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingInt(Match::getDistance).thenComparing(Match::getImageId));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * A árvore e o hash de cada imagem indexada, trocados juntos na recarga.
+     */
+    private static final class Tree {
+        final Map<String, Long> hashes = new HashMap<>();
+        Node root;
+
+        void add(String imageId, long hash) {
+            Long previous = hashes.put(imageId, hash);
+            if (previous != null) {
+                if (previous == hash) {
+                    return;
+                }
+                find(previous).ids.remove(imageId);
+            }
+            insert(imageId, hash);
+        }
+
+        void remove(String imageId) {
+            Long hash = hashes.remove(imageId);
+            if (hash != null) {
+                find(hash).ids.remove(imageId);
+            }
+        }
+
+        private void insert(String imageId, long hash) {
+            if (root == null) {
+                root = new Node(hash);
+                root.ids.add(imageId);
+                return;
+            }
+            Node node = root;
+            while (true) {
+                int distance = PerceptualHash.distance(hash, node.hash);
+                if (distance == 0) {
+                    node.ids.add(imageId);
+                    return;
+                }
+                Node child = node.child(distance);
+                if (child == null) {
+                    child = new Node(hash);
+                    child.ids.add(imageId);
+                    node.addChild(distance, child);
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        private Node find(long hash) {
+            Node node = root;
+            int distance;
+            while ((distance = PerceptualHash.distance(hash, node.hash)) != 0) {
+                node = node.child(distance);
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Nó da árvore. Os filhos ficam em vetores pequenos, percorridos por inteiro na busca, o que é mais
+     * rápido e ocupa menos memória que um mapa por nó.
+     */
+    private static final class Node {
+        final long hash;
+        final List<String> ids = new ArrayList<>(1);
+        byte[] childDistances = new byte[0];
+        Node[] children = new Node[0];
+        int childCount;
+
+        Node(long hash) {
+            this.hash = hash;
+        }
+
+        Node child(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (childDistances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, Node child) {
+            if (childCount == children.length) {
+                int capacity = Math.max(2, childCount * 2);
+                childDistances = Arrays.copyOf(childDistances, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            childDistances[childCount] = (byte) distance;
+            children[childCount++] = child;
+        }
+    }
+
+    @Value
+    public static class Match {
+        String imageId;
+        int distance;
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.mapsegundo.imageliteapi.application.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Chaves usadas para assinar e validar os tokens JWT, carregadas da configuração na inicialização.
+ * Como todas as instâncias da aplicação usam as mesmas chaves, um token emitido por uma delas é aceito
+ * pelas demais e continua válido após reinicializações.
+ * <p>
+ * Sem chaves configuradas é gerada uma chave aleatória, adequada apenas para desenvolvimento.
+ */
+@Component
+@Slf4j
+public class JwtKeys {
+
+    private final String activeKeyId;
+    private final Map<String, SecretKey> keys;
+
+    public JwtKeys(JwtProperties properties) {
+        if (properties.getKeys().isEmpty()) {
+            log.warn("Nenhuma chave JWT configurada em imagelite.jwt.keys; usando uma chave aleatória. " +
+                    "Os tokens não serão aceitos por outras instâncias nem após reiniciar a aplicação");
+            this.activeKeyId = "dev-" + UUID.randomUUID();
+            this.keys = Map.of(activeKeyId, Jwts.SIG.HS256.key().build());
+            return;
+        }
+
+        this.keys = properties.getKeys().entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey,
+                        entry -> Keys.hmacShaKeyFor(Decoders.BASE64.decode(entry.getValue()))));
+
+        String activeKeyId = properties.getActiveKeyId();
+        if (!StringUtils.hasText(activeKeyId) && keys.size() == 1) {
+            activeKeyId = keys.keySet().iterator().next();
+        }
+        if (!keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("imagelite.jwt.active-key-id must be one of the configured keys");
+        }
+        this.activeKeyId = activeKeyId;
+    }
+
+    /**
+     * @return o identificador da chave que assina novos tokens
+     */
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    /**
+     * @return a chave que assina novos tokens
+     */
+    public SecretKey getActiveKey() {
+        return keys.get(activeKeyId);
+    }
+
+    /**
+     * @param keyId o identificador informado no cabeçalho do token
+     * @return a chave, ou null se o identificador não for conhecido
+     */
+    public SecretKey getKey(String keyId) {
+        return keyId != null ? keys.get(keyId) : null;
+    }
+}
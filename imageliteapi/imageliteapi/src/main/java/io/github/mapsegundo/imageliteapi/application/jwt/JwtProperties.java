@@ -0,0 +1,37 @@
+package io.github.mapsegundo.imageliteapi.application.jwt;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuração dos tokens JWT ({@code imagelite.jwt}).
+ * <p>
+ * As chaves são segredos HMAC em Base64, de pelo menos 256 bits, identificadas pelo {@code kid} gravado
+ * no cabeçalho dos tokens. Para trocar a chave, adicione a nova chave, passe a assiná-los com ela em
+ * {@code active-key-id} e mantenha a antiga até que os tokens emitidos com ela expirem.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "imagelite.jwt")
+public class JwtProperties {
+
+    /**
+     * Identificador da chave usada para assinar novos tokens.
+     */
+    private String activeKeyId;
+
+    /**
+     * Chaves aceitas na validação, por identificador.
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /**
+     * Validade dos tokens emitidos.
+     */
+    private Duration expiration = Duration.ofMinutes(60);
+}
@@ -3,25 +3,46 @@ package io.github.mapsegundo.imageliteapi.application.jwt;
 import io.github.mapsegundo.imageliteapi.domain.AccessToken;
 import io.github.mapsegundo.imageliteapi.domain.entity.User;
 import io.github.mapsegundo.imageliteapi.domain.exception.InvalidTokenException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.ProtectedHeader;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
- * A classe `JwtService` é responsável por gerar tokens JWT (JSON Web Tokens) para autenticação de usuários.
+ * A classe `JwtService` é responsável por gerar e validar tokens JWT (JSON Web Tokens) para autenticação de usuários.
+ * Os tokens trazem nas claims os dados necessários para autenticar o usuário, então a validação não consulta o banco.
  */
 @Service
-@RequiredArgsConstructor
 public class JwtService {
 
-    private final SecretKeyGenerator keyGenerator;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String NAME_CLAIM = "name";
+
+    private final JwtKeys keys;
+    private final Duration expiration;
+
+    /**
+     * Parser reutilizado em todas as validações; é imutável e pode ser usado por várias threads.
+     * A chave de validação é escolhida pelo {@code kid} do cabeçalho do token.
+     */
+    private final JwtParser parser;
+
+    public JwtService(JwtKeys keys, JwtProperties properties) {
+        this.keys = keys;
+        this.expiration = properties.getExpiration();
+        this.parser = Jwts.parser()
+                .keyLocator(this::locateKey)
+                .build();
+    }
 
     /**
      * Gera um token JWT para o usuário fornecido.
@@ -30,53 +51,48 @@ public class JwtService {
      * @return Um objeto `AccessToken` contendo o token gerado.
      */
     public AccessToken generateToken(User user) {
-
-        var key = keyGenerator.getKey();
-        var expirationTime = getExpirationTime();
-        var claims = getClaims(user);
+        Instant now = Instant.now();
 
         String token = Jwts.builder()
+                .header().keyId(keys.getActiveKeyId()).and()
                 .subject(user.getEmail())
-                .expiration(expirationTime)
-                .claims(claims)
-                .signWith(key)
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(NAME_CLAIM, user.getName())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(expiration)))
+                .signWith(keys.getActiveKey())
                 .compact();
         return new AccessToken(token);
     }
 
     /**
-     * Calcula o tempo de expiração do token.
+     * Valida o token e extrai o usuário das claims.
      *
-     * @return A data de expiração do token.
+     * @param token O token recebido.
+     * @return O usuário identificado pelo token.
+     * @throws InvalidTokenException se o token for inválido, expirado ou assinado com uma chave desconhecida.
      */
-    private Date getExpirationTime() {
-        // 60 minutos de duração
-        LocalDateTime expirationTime = LocalDateTime.now().plusMinutes(60);
-        return Date.from(expirationTime.atZone(ZoneId.systemDefault()).toInstant());
-    }
-
-    /**
-     * Cria um mapa de claims (informações) para o token JWT com base no usuário fornecido.
-     *
-     * @param user O usuário para o qual os claims serão gerados.
-     * @return Um mapa contendo os claims do token.
-     */
-    private Map<String, Object> getClaims(User user) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("name", user.getName());
-        return claims;
-    }
-
-    public String getEmailFromToken(String token) {
+    public TokenSubject parseToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(keyGenerator.getKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-        } catch (JwtException e) {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getSubject() == null) {
+                throw new InvalidTokenException("Token without subject");
+            }
+            return new TokenSubject(
+                    claims.get(USER_ID_CLAIM, String.class),
+                    claims.getSubject(),
+                    claims.get(NAME_CLAIM, String.class));
+        } catch (JwtException | IllegalArgumentException e) {
             throw new InvalidTokenException(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private Key locateKey(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        SecretKey key = keys.getKey(keyId);
+        if (key == null) {
+            throw new InvalidTokenException("Unknown signing key: " + keyId);
+        }
+        return key;
+    }
+}
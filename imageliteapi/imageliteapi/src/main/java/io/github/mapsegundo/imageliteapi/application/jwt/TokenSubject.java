@@ -0,0 +1,13 @@
+package io.github.mapsegundo.imageliteapi.application.jwt;
+
+import lombok.Value;
+
+/**
+ * Usuário identificado pelas claims de um token válido; é o principal das requisições autenticadas.
+ */
+@Value
+public class TokenSubject {
+    String userId;
+    String email;
+    String name;
+}
@@ -0,0 +1,53 @@
+package io.github.mapsegundo.imageliteapi.application.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuração dos limites de uso por cliente ({@code imagelite.rate-limit}).
+ * <p>
+ * Cada cliente, identificado pelo usuário do token ou, sem token, pelo IP, tem um limite de requisições e
+ * um de bytes transferidos (enviados nos uploads e recebidos nos downloads). Os limites admitem rajadas
+ * até a capacidade, repostas na taxa configurada.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "imagelite.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Requisições por segundo de cada cliente.
+     */
+    private double requestsPerSecond = 20;
+
+    /**
+     * Requisições aceitas de uma vez, acima da taxa.
+     */
+    private long requestBurst = 50;
+
+    /**
+     * Bytes transferidos por segundo por cada cliente.
+     */
+    private DataSize bandwidth = DataSize.ofMegabytes(10);
+
+    /**
+     * Bytes transferidos de uma vez, acima da taxa.
+     */
+    private DataSize bandwidthBurst = DataSize.ofMegabytes(50);
+
+    /**
+     * Tempo sem requisições após o qual os limites de um cliente são descartados (e voltam cheios).
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Quantidade máxima de clientes acompanhados.
+     */
+    private long maxClients = 100_000;
+}
@@ -0,0 +1,125 @@
+package io.github.mapsegundo.imageliteapi.application.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.mapsegundo.imageliteapi.application.jwt.TokenSubject;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limites de requisições e de banda por cliente, para que um cliente não piore a latência dos demais.
+ * Os baldes de fichas de cada cliente ficam em um cache limitado, descartados após um tempo sem uso;
+ * consultar e atualizar os limites não usa travas, então o custo por requisição é constante mesmo
+ * com muitas requisições simultâneas do mesmo cliente.
+ * As requisições recusadas são publicadas na métrica {@code imagelite.rate-limit.rejected}, pelo limite.
+ */
+@Component
+public class RateLimiter implements MeterBinder {
+
+    private final RateLimitProperties properties;
+    private final Cache<String, ClientLimits> clients;
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder rejectedBandwidth = new LongAdder();
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.clients = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxClients())
+                .build();
+    }
+
+    /**
+     * Identifica o cliente de uma requisição: o usuário autenticado ou, sem autenticação, o endereço de origem.
+     */
+    public String clientOf(Authentication authentication, String remoteAddress) {
+        if (authentication != null && authentication.getPrincipal() instanceof TokenSubject user
+                && user.getUserId() != null) {
+            return "user:" + user.getUserId();
+        }
+        return "ip:" + remoteAddress;
+    }
+
+    /**
+     * Registra uma requisição do cliente e os bytes enviados no corpo. Os downloads, e os uploads de tamanho
+     * desconhecido, são descontados depois, em {@link #recordDownload} e {@link #recordUpload}; enquanto o
+     * cliente estiver em débito, novas requisições são recusadas. Uma requisição recusada pelo limite de banda
+     * não consome o limite de requisições.
+     *
+     * @param client      o cliente, veja {@link #clientOf}
+     * @param uploadBytes o tamanho do corpo da requisição, ou um valor negativo se desconhecido
+     * @return zero se a requisição foi aceita, ou o tempo até que possa ser repetida
+     */
+    public Duration acquire(String client, long uploadBytes) {
+        if (!properties.isEnabled()) {
+            return Duration.ZERO;
+        }
+        ClientLimits limits = clients.get(client, key -> new ClientLimits());
+        long wait = limits.requests.tryConsume(1);
+        if (wait > 0) {
+            rejectedRequests.increment();
+            return Duration.ofNanos(wait);
+        }
+        wait = limits.bandwidth.tryConsume(Math.max(uploadBytes, 0));
+        if (wait > 0) {
+            limits.requests.refund(1);
+            rejectedBandwidth.increment();
+            return Duration.ofNanos(wait);
+        }
+        return Duration.ZERO;
+    }
+
+    /**
+     * Desconta do limite de banda os bytes enviados ao cliente em uma resposta.
+     */
+    public void recordDownload(String client, long bytes) {
+        recordTransfer(client, bytes);
+    }
+
+    /**
+     * Desconta do limite de banda os bytes recebidos em um upload sem tamanho informado (em partes),
+     * contados durante a leitura do corpo.
+     */
+    public void recordUpload(String client, long bytes) {
+        recordTransfer(client, bytes);
+    }
+
+    private void recordTransfer(String client, long bytes) {
+        if (!properties.isEnabled() || bytes <= 0) {
+            return;
+        }
+        ClientLimits limits = clients.getIfPresent(client);
+        if (limits != null) {
+            limits.bandwidth.consume(bytes);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("imagelite.rate-limit.rejected", rejectedRequests, LongAdder::sum)
+                .tag("limit", "requests")
+                .description("Requisições recusadas pelos limites de uso")
+                .register(registry);
+        FunctionCounter.builder("imagelite.rate-limit.rejected", rejectedBandwidth, LongAdder::sum)
+                .tag("limit", "bandwidth")
+                .description("Requisições recusadas pelos limites de uso")
+                .register(registry);
+        Gauge.builder("imagelite.rate-limit.clients", clients, Cache::estimatedSize)
+                .description("Clientes com limites de uso acompanhados")
+                .register(registry);
+    }
+
+    private class ClientLimits {
+        private final TokenBucket requests =
+                new TokenBucket(properties.getRequestsPerSecond(), properties.getRequestBurst());
+        private final TokenBucket bandwidth =
+                new TokenBucket(properties.getBandwidth().toBytes(), properties.getBandwidthBurst().toBytes());
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.mapsegundo.imageliteapi.application.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Balde de fichas sem trava. Em vez da quantidade de fichas, guarda o instante em que o balde volta a ficar
+ * cheio (o algoritmo GCRA): consumir fichas adia esse instante, e o balde está acima da capacidade quando ele
+ * fica mais longe do que o tempo de reposição da capacidade. Assim o estado é um único {@code long}, atualizado
+ * por compare-and-set, e nenhuma thread espera por outra.
+ */
+final class TokenBucket {
+
+    private final long capacity;
+    private final double nanosPerToken;
+    private final long refillNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Instante, no relógio do balde, em que ele volta a ficar cheio.
+     */
+    private final AtomicLong fullAt;
+
+    /**
+     * @param tokensPerSecond as fichas repostas por segundo
+     * @param capacity        a capacidade do balde, que começa cheio
+     */
+    TokenBucket(double tokensPerSecond, long capacity) {
+        this(tokensPerSecond, capacity, System::nanoTime);
+    }
+
+    /**
+     * @param clock o relógio em nanossegundos, como {@link System#nanoTime()}
+     */
+    TokenBucket(double tokensPerSecond, long capacity, LongSupplier clock) {
+        this.capacity = capacity;
+        this.nanosPerToken = 1_000_000_000d / tokensPerSecond;
+        this.refillNanos = nanos(capacity);
+        this.clock = clock;
+        this.fullAt = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Consome as fichas se houver o suficiente. Um pedido maior que a capacidade é aceito com o balde cheio,
+     * deixando-o em débito pelo excedente.
+     *
+     * @param tokens as fichas a consumir; 0 apenas verifica se o balde não está em débito
+     * @return 0 se as fichas foram consumidas, ou o tempo em nanossegundos até haver fichas suficientes
+     */
+    long tryConsume(long tokens) {
+        long required = nanos(Math.min(tokens, capacity));
+        long cost = nanos(tokens);
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long start = current - now > 0 ? current : now;
+            long wait = start - now + required - refillNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (cost == 0 || fullAt.compareAndSet(current, start + cost)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Consome as fichas mesmo sem haver o suficiente, deixando o balde em débito; usado quando o consumo
+     * só é conhecido depois de acontecer.
+     */
+    void consume(long tokens) {
+        long cost = nanos(tokens);
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long start = current - now > 0 ? current : now;
+            if (fullAt.compareAndSet(current, start + cost)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Devolve fichas consumidas por uma requisição que acabou recusada por outro limite. O balde nunca
+     * passa da capacidade: um instante de cheio no passado equivale a agora.
+     */
+    void refund(long tokens) {
+        fullAt.addAndGet(-nanos(tokens));
+    }
+
+    private long nanos(long tokens) {
+        return (long) Math.ceil(tokens * nanosPerToken);
+    }
+}
@@ -7,6 +7,7 @@ import io.github.mapsegundo.imageliteapi.domain.exception.DuplicatedTupleExcepti
 import io.github.mapsegundo.imageliteapi.domain.service.UserService;
 import io.github.mapsegundo.imageliteapi.infra.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -58,7 +59,12 @@ public class UserServiceImpl implements UserService {
             throw new DuplicatedTupleException("O usuário já existe");
         }
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // Cadastro simultâneo com o mesmo email, barrado pela restrição única
+            throw new DuplicatedTupleException("O usuário já existe");
+        }
     }
 
     /**
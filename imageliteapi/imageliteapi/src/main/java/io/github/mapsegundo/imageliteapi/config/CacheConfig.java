@@ -0,0 +1,64 @@
+package io.github.mapsegundo.imageliteapi.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Classe de configuração dos caches em memória das imagens.
+ * As estatísticas dos caches (acertos, falhas e remoções) são publicadas nas métricas do actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Cache dos metadados das imagens, por id.
+     */
+    public static final String IMAGES = "images";
+
+    /**
+     * Cache do conteúdo das imagens pequenas, pela chave do blob.
+     */
+    public static final String IMAGE_CONTENT = "image-content";
+
+    /**
+     * Define o gerenciador de caches.
+     * O cache de metadados é limitado pela quantidade de imagens e expira após um tempo, como proteção
+     * caso alguma alteração não o invalide. O cache de conteúdo é limitado pela soma dos bytes guardados
+     * e não expira, pois o conteúdo de um blob nunca muda.
+     * Dentro de uma transação, as gravações e invalidações só são aplicadas após o commit; antes disso uma
+     * leitura concorrente poderia guardar de novo no cache os valores anteriores à alteração.
+     *
+     * @param metadataMaxEntries a quantidade máxima de imagens no cache de metadados
+     * @param metadataTtl o tempo de expiração dos metadados
+     * @param contentMaxSize o tamanho máximo do cache de conteúdo
+     * @return o gerenciador de caches
+     */
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${imagelite.cache.metadata.max-entries}") long metadataMaxEntries,
+            @Value("${imagelite.cache.metadata.ttl}") Duration metadataTtl,
+            @Value("${imagelite.cache.content.max-size}") DataSize contentMaxSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(IMAGES, Caffeine.newBuilder()
+                .maximumSize(metadataMaxEntries)
+                .expireAfterWrite(metadataTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(IMAGE_CONTENT, Caffeine.newBuilder()
+                .maximumWeight(contentMaxSize.toBytes())
+                .weigher((Object key, Object content) -> ((byte[]) content).length)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
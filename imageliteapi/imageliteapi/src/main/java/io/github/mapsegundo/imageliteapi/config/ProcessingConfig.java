@@ -0,0 +1,75 @@
+package io.github.mapsegundo.imageliteapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Classe de configuração do processamento assíncrono das imagens.
+ */
+@Configuration
+public class ProcessingConfig {
+
+    /**
+     * Define o pool de threads que executa o processamento após o upload.
+     * O pool e a fila são limitados: quando a fila está cheia a tarefa é rejeitada em vez de
+     * bloquear a requisição, e a imagem permanece pendente até ser reenviada pela varredura periódica.
+     *
+     * @param threads a quantidade de threads do pool
+     * @param queueCapacity a capacidade da fila de tarefas
+     * @return o executor do processamento de imagens
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageProcessingExecutor(
+            @Value("${imagelite.processing.threads}") int threads,
+            @Value("${imagelite.processing.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-processing-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Define o executor que grava o conteúdo dos envios em lote.
+     * Com threads virtuais habilitadas, cada item roda em uma thread virtual, limitadas a {@code threads}
+     * gravações simultâneas. Caso contrário usa um pool de threads; quando a fila está cheia, a própria
+     * requisição grava o item. Nos dois casos a memória e os descritores de arquivo em uso são limitados
+     * sem rejeitar itens do lote.
+     *
+     * @param threads a quantidade de gravações simultâneas
+     * @param queueCapacity a capacidade da fila de tarefas do pool
+     * @param virtualThreads se as threads virtuais estão habilitadas
+     * @return o executor dos envios em lote
+     */
+    @Bean
+    public AsyncTaskExecutor imageBatchExecutor(
+            @Value("${imagelite.batch.threads}") int threads,
+            @Value("${imagelite.batch.queue-capacity}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("image-batch-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(threads);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-batch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.mapsegundo.imageliteapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mapsegundo.imageliteapi.application.images.ImagesHandler;
+import io.github.mapsegundo.imageliteapi.application.jwt.JwtService;
+import io.github.mapsegundo.imageliteapi.application.ratelimit.RateLimiter;
+import io.github.mapsegundo.imageliteapi.config.filter.JwtWebFilter;
+import io.github.mapsegundo.imageliteapi.config.filter.RateLimitWebFilter;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.multipart.DefaultPartHttpMessageReader;
+import org.springframework.http.codec.multipart.MultipartHttpMessageReader;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import org.springframework.web.reactive.handler.WebFluxResponseStatusExceptionHandler;
+
+import java.util.function.Consumer;
+
+/**
+ * Classe de configuração da API reativa de imagens ({@code /v2/images}), atendida por um servidor Netty
+ * em uma porta própria, ao lado do Tomcat da API {@code /v1}. Os dois servidores compartilham os mesmos
+ * serviços, armazenamento e caches; no Netty poucas threads de evento atendem muitas conexões simultâneas,
+ * inclusive de clientes lentos.
+ */
+@Configuration
+@ConditionalOnProperty(name = "imagelite.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveServerConfig {
+
+    private static final int MAX_PARTS = 16;
+
+    @Bean
+    public RouterFunction<ServerResponse> imagesRouter(ImagesHandler handler) {
+        return RouterFunctions.route()
+                .path("/v2/images", images -> images
+                        .GET("/{id}", handler::getImage)
+                        .GET("", handler::search)
+                        .POST("", handler::save))
+                // Identifica a rota nas métricas (tag uri), como o Spring MVC faz na API /v1
+                .filter((request, next) -> {
+                    request.attribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE).ifPresent(pattern ->
+                            ServerRequestObservationContext.findCurrent(request.exchange().getAttributes())
+                                    .ifPresent(context -> context.setPathPattern(pattern.toString())));
+                    return next.handle(request);
+                })
+                .build();
+    }
+
+    /**
+     * Define o servidor reativo, iniciado e parado junto com a aplicação.
+     *
+     * @param router as rotas da API reativa
+     * @param port a porta do servidor
+     * @param maxFileSize o tamanho máximo de um arquivo enviado, o mesmo da API {@code /v1}
+     * @return o ciclo de vida do servidor
+     */
+    @Bean
+    public SmartLifecycle reactiveServer(RouterFunction<ServerResponse> imagesRouter,
+                                         JwtService jwtService,
+                                         RateLimiter rateLimiter,
+                                         ObservationRegistry observationRegistry,
+                                         ObjectMapper objectMapper,
+                                         @Value("${imagelite.reactive.port}") int port,
+                                         @Value("${spring.servlet.multipart.max-file-size}") DataSize maxFileSize) {
+        Consumer<ServerCodecConfigurer> codecs = configurer -> {
+            configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+            configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+            // Os arquivos enviados são gravados em disco conforme chegam, sem ocupar memória
+            DefaultPartHttpMessageReader parts = new DefaultPartHttpMessageReader();
+            parts.setMaxDiskUsagePerPart(maxFileSize.toBytes());
+            parts.setMaxParts(MAX_PARTS);
+            configurer.defaultCodecs().multipartReader(new MultipartHttpMessageReader(parts));
+        };
+        ServerCodecConfigurer codecConfigurer = ServerCodecConfigurer.create();
+        codecs.accept(codecConfigurer);
+
+        HttpHandler httpHandler = WebHttpHandlerBuilder
+                .webHandler(RouterFunctions.toWebHandler(imagesRouter, HandlerStrategies.builder().codecs(codecs).build()))
+                .filter(new JwtWebFilter(jwtService, observationRegistry))
+                .filter(new RateLimitWebFilter(rateLimiter))
+                .exceptionHandler(new WebFluxResponseStatusExceptionHandler())
+                .codecConfigurer(codecConfigurer)
+                // Os tempos das requisições ficam em http.server.requests, como os da API /v1
+                .observationRegistry(observationRegistry)
+                .httpHandlerDecorator(RateLimitWebFilter::countChunkedUploads)
+                .build();
+
+        return new WebServerLifecycle(new NettyReactiveWebServerFactory(port).getWebServer(httpHandler));
+    }
+
+    private static class WebServerLifecycle implements SmartLifecycle {
+
+        private final WebServer webServer;
+        private volatile boolean running;
+
+        private WebServerLifecycle(WebServer webServer) {
+            this.webServer = webServer;
+        }
+
+        @Override
+        public void start() {
+            webServer.start();
+            running = true;
+            log.info("API reativa iniciada na porta {}", webServer.getPort());
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+            webServer.stop();
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package io.github.mapsegundo.imageliteapi.config;
 
 import io.github.mapsegundo.imageliteapi.application.jwt.JwtService;
+import io.github.mapsegundo.imageliteapi.application.ratelimit.RateLimiter;
 import io.github.mapsegundo.imageliteapi.config.filter.JwtFilter;
-import io.github.mapsegundo.imageliteapi.domain.service.UserService;
+import io.github.mapsegundo.imageliteapi.config.filter.RateLimitFilter;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -25,8 +28,13 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
 
     @Bean
-    public JwtFilter jwtFilter(JwtService jwtService, UserService userService) {
-        return new JwtFilter(jwtService, userService);
+    public JwtFilter jwtFilter(JwtService jwtService, ObservationRegistry observationRegistry) {
+        return new JwtFilter(jwtService, observationRegistry);
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimiter rateLimiter) {
+        return new RateLimitFilter(rateLimiter);
     }
 
     /**
@@ -47,16 +55,23 @@ public class SecurityConfig {
      * @throws Exception se ocorrer um erro durante a configuração
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity, JwtFilter jwtFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity, JwtFilter jwtFilter,
+                                                   RateLimitFilter rateLimitFilter) throws Exception {
         return httpSecurity
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configure(httpSecurity))
                 .authorizeHttpRequests(auth -> {
                     auth.requestMatchers("/v1/users/**").permitAll();
                     auth.requestMatchers(HttpMethod.GET, "v1/images/**").permitAll();
+                    // Coleta de métricas pelo Prometheus e verificações de saúde, sem token; o actuator é servido
+                    // na porta de gerenciamento, que fica fora da rede pública
+                    auth.requestMatchers(HttpMethod.GET, "/actuator/health/**", "/actuator/prometheus").permitAll();
+                    // Os demais endpoints do actuator não são acessíveis por usuários da API
+                    auth.requestMatchers("/actuator/**").denyAll();
                     auth.anyRequest().authenticated();
                 })
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtFilter.class)
                 .build();
     }
 
@@ -68,6 +83,10 @@ public class SecurityConfig {
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration().applyPermitDefaultValues();
+        // Cabeçalho com o link da próxima página da pesquisa de imagens
+        config.addExposedHeader(HttpHeaders.LINK);
+        // Espera indicada nas respostas 429 dos limites de uso
+        config.addExposedHeader(HttpHeaders.RETRY_AFTER);
         UrlBasedCorsConfigurationSource cors = new UrlBasedCorsConfigurationSource();
         cors.registerCorsConfiguration("/**", config);
 
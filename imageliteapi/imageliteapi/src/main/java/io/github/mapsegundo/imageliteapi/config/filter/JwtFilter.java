@@ -1,9 +1,10 @@
 package io.github.mapsegundo.imageliteapi.config.filter;
 
 import io.github.mapsegundo.imageliteapi.application.jwt.JwtService;
-import io.github.mapsegundo.imageliteapi.domain.entity.User;
+import io.github.mapsegundo.imageliteapi.application.jwt.TokenSubject;
 import io.github.mapsegundo.imageliteapi.domain.exception.InvalidTokenException;
-import io.github.mapsegundo.imageliteapi.domain.service.UserService;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,8 +12,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
@@ -21,37 +22,42 @@ import java.io.IOException;
 @Slf4j
 public class JwtFilter extends OncePerRequestFilter {
 
+    private static final String OUTCOME = "outcome";
+
     private final JwtService jwtService;
-    private final UserService userService;
+    private final ObservationRegistry observationRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String token = extractToken(request);
 
         if(token != null) {
+            // O tempo de validação é publicado como imagelite.jwt.validation, pelo resultado
+            Observation observation = Observation.start("imagelite.jwt.validation", observationRegistry);
             try {
-                String email = jwtService.getEmailFromToken(token);
-                User user = userService.getByEmail(email);
-                setUserAsAuthenticated(user);
+                // O usuário vem das claims do token, sem consulta ao banco
+                TokenSubject subject = jwtService.parseToken(token);
+                observation.lowCardinalityKeyValue(OUTCOME, "valid");
+                setUserAsAuthenticated(subject);
             } catch (InvalidTokenException e) {
+                observation.lowCardinalityKeyValue(OUTCOME, "invalid");
                 log.error("Token inválido: {}", e.getMessage());
             } catch (Exception e) {
+                observation.lowCardinalityKeyValue(OUTCOME, "error");
+                observation.error(e);
                 log.error("Erro na validação do token: {}", e.getMessage());
+            } finally {
+                observation.stop();
             }
         }
 
         filterChain.doFilter(request, response);
     }
 
-    private void setUserAsAuthenticated(User user) {
-        UserDetails userDetails = org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .roles("USER")
-                .build();
-
+    private void setUserAsAuthenticated(TokenSubject subject) {
+        // O principal é o próprio usuário do token, com o id usado como dono das imagens e nos limites de uso
         UsernamePasswordAuthenticationToken authentication =
-                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                new UsernamePasswordAuthenticationToken(subject, null, AuthorityUtils.createAuthorityList("ROLE_USER"));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
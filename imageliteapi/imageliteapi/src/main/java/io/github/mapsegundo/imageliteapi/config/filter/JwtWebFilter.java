@@ -0,0 +1,90 @@
+package io.github.mapsegundo.imageliteapi.config.filter;
+
+import io.github.mapsegundo.imageliteapi.application.jwt.JwtService;
+import io.github.mapsegundo.imageliteapi.application.jwt.TokenSubject;
+import io.github.mapsegundo.imageliteapi.domain.exception.InvalidTokenException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Equivalente do {@link JwtFilter} para a API reativa, que não passa pela cadeia de filtros do Spring Security.
+ * Aplica as mesmas regras da {@code SecurityConfig}: leituras são públicas e as demais requisições
+ * exigem um token válido, com {@code 403} como resposta na falta dele.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class JwtWebFilter implements WebFilter {
+
+    private static final String OUTCOME = "outcome";
+
+    private final JwtService jwtService;
+    private final ObservationRegistry observationRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String token = extractToken(exchange.getRequest());
+        Authentication authentication = token != null ? authenticate(token) : null;
+
+        if (authentication == null) {
+            if (requiresAuthentication(exchange.getRequest())) {
+                exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+                return exchange.getResponse().setComplete();
+            }
+            return chain.filter(exchange);
+        }
+        // O principal também fica na troca, para os handlers e o limite de uso
+        return chain.filter(exchange.mutate().principal(Mono.just(authentication)).build())
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    private Authentication authenticate(String token) {
+        // O tempo de validação é publicado como imagelite.jwt.validation, pelo resultado
+        Observation observation = Observation.start("imagelite.jwt.validation", observationRegistry);
+        try {
+            // O usuário vem das claims do token, sem consulta ao banco
+            TokenSubject subject = jwtService.parseToken(token);
+            observation.lowCardinalityKeyValue(OUTCOME, "valid");
+            return toAuthentication(subject);
+        } catch (InvalidTokenException e) {
+            observation.lowCardinalityKeyValue(OUTCOME, "invalid");
+            log.error("Token inválido: {}", e.getMessage());
+        } catch (Exception e) {
+            observation.lowCardinalityKeyValue(OUTCOME, "error");
+            observation.error(e);
+            log.error("Erro na validação do token: {}", e.getMessage());
+        } finally {
+            observation.stop();
+        }
+        return null;
+    }
+
+    private Authentication toAuthentication(TokenSubject subject) {
+        return new UsernamePasswordAuthenticationToken(subject, null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+    }
+
+    private String extractToken(ServerHttpRequest request) {
+        String bearerToken = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+
+    private boolean requiresAuthentication(ServerHttpRequest request) {
+        return !HttpMethod.GET.equals(request.getMethod()) && !HttpMethod.HEAD.equals(request.getMethod());
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.mapsegundo.imageliteapi.config.filter;
+
+import io.github.mapsegundo.imageliteapi.application.ratelimit.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Aplica os limites de uso do {@link RateLimiter}, depois do {@link JwtFilter}, para que os usuários
+ * autenticados tenham limites próprios. Requisições acima do limite recebem {@code 429 Too Many Requests}
+ * com o cabeçalho {@code Retry-After}, sem chegar aos controladores.
+ * Os bytes de uploads sem {@code Content-Length} (enviados em partes) são contados durante a leitura
+ * e descontados depois da requisição, como os downloads.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String client = rateLimiter.clientOf(SecurityContextHolder.getContext().getAuthentication(), request.getRemoteAddr());
+        long uploadBytes = request.getContentLengthLong();
+        Duration wait = rateLimiter.acquire(client, uploadBytes);
+        if (!wait.isZero()) {
+            log.debug("Limite de uso excedido: {}", client);
+            reject(response, wait);
+            return;
+        }
+
+        CountingRequest counting = uploadBytes < 0 ? new CountingRequest(request) : null;
+        try {
+            filterChain.doFilter(counting != null ? counting : request, response);
+        } finally {
+            if (counting != null) {
+                rateLimiter.recordUpload(client, counting.getBytesRead());
+            }
+            rateLimiter.recordDownload(client, contentLength(response));
+        }
+    }
+
+    static long retryAfterSeconds(Duration wait) {
+        return Math.max(1, (wait.toMillis() + 999) / 1000);
+    }
+
+    private void reject(HttpServletResponse response, Duration wait) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(wait)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\"}");
+    }
+
+    private static long contentLength(HttpServletResponse response) {
+        String length = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        try {
+            return length != null ? Long.parseLong(length) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    /**
+     * Conta os bytes lidos do corpo da requisição. As partes de um upload multipart são lidas pelo próprio
+     * servidor, então o tamanho delas é somado quando são obtidas.
+     */
+    static class CountingRequest extends HttpServletRequestWrapper {
+
+        private long partBytes;
+        private CountingInputStream input;
+
+        CountingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        long getBytesRead() {
+            return partBytes + (input != null ? input.count : 0);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (input == null) {
+                input = new CountingInputStream(super.getInputStream());
+            }
+            return input;
+        }
+
+        @Override
+        public Collection<Part> getParts() throws IOException, ServletException {
+            Collection<Part> parts = super.getParts();
+            if (partBytes == 0) {
+                partBytes = parts.stream().mapToLong(Part::getSize).sum();
+            }
+            return parts;
+        }
+    }
+
+    private static class CountingInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private long count;
+
+        CountingInputStream(ServletInputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = delegate.read();
+            if (read >= 0) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = delegate.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            delegate.setReadListener(listener);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.mapsegundo.imageliteapi.config.filter;
+
+import io.github.mapsegundo.imageliteapi.application.ratelimit.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Equivalente do {@link RateLimitFilter} para a API reativa, aplicado depois do {@link JwtWebFilter}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitWebFilter implements WebFilter {
+
+    private static final byte[] BODY = "{\"error\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        String address = remoteAddress != null ? remoteAddress.getHostString() : "unknown";
+        return exchange.getPrincipal()
+                .map(principal -> rateLimiter.clientOf(principal instanceof Authentication authentication ? authentication : null, address))
+                .defaultIfEmpty(rateLimiter.clientOf(null, address))
+                .flatMap(client -> {
+                    long uploadBytes = exchange.getRequest().getHeaders().getContentLength();
+                    Duration wait = rateLimiter.acquire(client, uploadBytes);
+                    if (!wait.isZero()) {
+                        log.debug("Limite de uso excedido: {}", client);
+                        return reject(exchange.getResponse(), wait);
+                    }
+                    exchange.getResponse().beforeCommit(() -> {
+                        rateLimiter.recordDownload(client, exchange.getResponse().getHeaders().getContentLength());
+                        return Mono.empty();
+                    });
+                    CountingRequest counting = uploadBytes < 0 ? countingRequest(exchange.getRequest()) : null;
+                    if (counting == null) {
+                        return chain.filter(exchange);
+                    }
+                    // Upload em partes: os bytes contados durante a leitura são descontados ao final
+                    return chain.filter(exchange)
+                            .doFinally(signal -> rateLimiter.recordUpload(client, counting.bytesRead.get()));
+                });
+    }
+
+    /**
+     * Conta os bytes recebidos nos uploads sem {@code Content-Length}. É aplicado ao {@link HttpHandler},
+     * antes da criação do exchange, pois o multipart é lido do corpo da requisição original.
+     */
+    public static HttpHandler countChunkedUploads(HttpHandler handler) {
+        return (request, response) -> handler.handle(
+                request.getHeaders().getContentLength() < 0 ? new CountingRequest(request) : request, response);
+    }
+
+    private static CountingRequest countingRequest(ServerHttpRequest request) {
+        while (request instanceof ServerHttpRequestDecorator decorator) {
+            if (decorator instanceof CountingRequest counting) {
+                return counting;
+            }
+            request = decorator.getDelegate();
+        }
+        return null;
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, Duration wait) {
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(RateLimitFilter.retryAfterSeconds(wait)));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory().wrap(BODY);
+        return response.writeWith(Mono.just(body));
+    }
+
+    private static class CountingRequest extends ServerHttpRequestDecorator {
+
+        private final AtomicLong bytesRead = new AtomicLong();
+
+        CountingRequest(ServerHttpRequest delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return super.getBody().doOnNext(buffer -> bytesRead.addAndGet(buffer.readableByteCount()));
+        }
+    }
+}
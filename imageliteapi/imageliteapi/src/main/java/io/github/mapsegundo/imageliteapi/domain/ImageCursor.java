@@ -0,0 +1,49 @@
+package io.github.mapsegundo.imageliteapi.domain;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição da última imagem de uma página de pesquisa, usada para buscar a página seguinte (paginação por chave).
+ * Para o cliente é um valor opaco.
+ */
+@Value
+public class ImageCursor {
+
+    /**
+     * Relevância da última imagem, presente apenas nas pesquisas ordenadas por relevância.
+     */
+    Double relevance;
+    LocalDateTime uploadDate;
+    String id;
+
+    public static ImageCursor of(ImageSummary image) {
+        return new ImageCursor(image.getRelevance(), image.getUploadDate(), image.getId());
+    }
+
+    public String encode() {
+        String value = uploadDate + "|" + id + "|" + (relevance != null ? relevance : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public static ImageCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split("\\|", -1);
+            if (parts.length != 3 || parts[1].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Double relevance = parts[2].isEmpty() ? null : Double.valueOf(parts[2]);
+            return new ImageCursor(relevance, LocalDateTime.parse(parts[0]), parts[1]);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
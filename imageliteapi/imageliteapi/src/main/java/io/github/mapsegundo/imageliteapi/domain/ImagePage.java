@@ -0,0 +1,17 @@
+package io.github.mapsegundo.imageliteapi.domain;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Uma página do resultado de uma pesquisa de imagens.
+ */
+@Value
+public class ImagePage {
+    List<ImageSummary> images;
+    /**
+     * Cursor da próxima página, ou null se esta for a última.
+     */
+    ImageCursor next;
+}
@@ -0,0 +1,46 @@
+package io.github.mapsegundo.imageliteapi.domain;
+
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.Orientation;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Critérios de uma pesquisa de imagens. Todos os critérios são opcionais.
+ */
+@Value
+@Builder
+public class ImageSearch {
+
+    /**
+     * Extensão das imagens.
+     */
+    ImageExtension extension;
+
+    /**
+     * Texto pesquisado no nome e nas tags.
+     */
+    String query;
+
+    /**
+     * Tags que a imagem deve possuir (todas elas).
+     */
+    Set<String> tags;
+
+    /**
+     * Largura mínima, em pixels.
+     */
+    Integer minWidth;
+
+    /**
+     * Altura mínima, em pixels.
+     */
+    Integer minHeight;
+
+    /**
+     * Orientação das imagens.
+     */
+    Orientation orientation;
+}
@@ -0,0 +1,38 @@
+package io.github.mapsegundo.imageliteapi.domain;
+
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.PixelFormat;
+import io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Metadados de uma imagem retornados pela pesquisa, sem carregar a entidade.
+ */
+@Data
+@Builder
+public class ImageSummary {
+    private String id;
+    private String name;
+    private ImageExtension extension;
+    private Long size;
+    private Integer width;
+    private Integer height;
+    private PixelFormat pixelFormat;
+    private Integer bitDepth;
+    private String dominantColor;
+    private ProcessingStatus processingStatus;
+    private LocalDateTime uploadDate;
+    private List<String> tags;
+    /**
+     * Relevância da imagem para o texto pesquisado, quando a pesquisa é ordenada por relevância.
+     */
+    private Double relevance;
+    /**
+     * Distância entre o hash perceptual da imagem e o da imagem consultada, na busca por imagens parecidas.
+     */
+    private Integer distance;
+}
@@ -0,0 +1,24 @@
+package io.github.mapsegundo.imageliteapi.domain;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Alteração dos metadados de uma imagem. Os campos nulos não são alterados.
+ */
+@Value
+@Builder
+public class ImageUpdate {
+
+    /**
+     * Novo nome da imagem.
+     */
+    String name;
+
+    /**
+     * Novas tags da imagem, que substituem as atuais.
+     */
+    Set<String> tags;
+}
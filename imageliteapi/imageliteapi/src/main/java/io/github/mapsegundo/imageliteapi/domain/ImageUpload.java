@@ -0,0 +1,14 @@
+package io.github.mapsegundo.imageliteapi.domain;
+
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import lombok.Value;
+import org.springframework.core.io.InputStreamSource;
+
+/**
+ * Uma imagem de um envio em lote: os metadados e a origem do conteúdo, lido apenas quando o item é gravado.
+ */
+@Value
+public class ImageUpload {
+    Image image;
+    InputStreamSource content;
+}
@@ -0,0 +1,35 @@
+package io.github.mapsegundo.imageliteapi.domain;
+
+import lombok.Value;
+
+/**
+ * O resultado de um item de um envio em lote.
+ */
+@Value
+public class ImageUploadResult {
+    /**
+     * Posição do item no envio.
+     */
+    int index;
+    String name;
+    /**
+     * Id da imagem salva, ou null se o item falhou.
+     */
+    String imageId;
+    /**
+     * Motivo da falha, ou null se o item foi salvo.
+     */
+    String error;
+
+    public static ImageUploadResult saved(int index, String name, String imageId) {
+        return new ImageUploadResult(index, name, imageId, null);
+    }
+
+    public static ImageUploadResult failed(int index, String name, String error) {
+        return new ImageUploadResult(index, name, null, error);
+    }
+
+    public boolean isSaved() {
+        return imageId != null;
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.mapsegundo.imageliteapi.domain;
+
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.ResizeFit;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Parâmetros de uma variante de uma imagem: redimensionada e/ou convertida para outro formato.
+ * Largura ou altura podem ser nulas; nesse caso a dimensão ausente segue a proporção original.
+ * Sem largura e altura, a variante apenas converte o formato ou a qualidade.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ImageVariant {
+
+    public static final int MAX_DIMENSION = 2048;
+
+    /**
+     * Variante usada como miniatura nas listagens.
+     */
+    public static final ImageVariant THUMBNAIL = new ImageVariant(256, 256, ResizeFit.COVER, null, null);
+
+    Integer width;
+    Integer height;
+    ResizeFit fit;
+    /**
+     * Formato da variante; quando nulo, o mesmo do original.
+     */
+    ImageExtension format;
+    /**
+     * Qualidade de 1 a 100 dos formatos com perdas; quando nula, a padrão do codificador.
+     */
+    Integer quality;
+
+    /**
+     * Cria e valida os parâmetros de uma variante.
+     *
+     * @param width  a largura desejada, opcional
+     * @param height a altura desejada, opcional
+     * @param fit    o modo de ajuste, opcional ({@link ResizeFit#CONTAIN} por padrão)
+     * @return a variante
+     * @throws IllegalArgumentException se nenhuma dimensão for informada ou se estiver fora dos limites
+     */
+    public static ImageVariant of(Integer width, Integer height, String fit) {
+        if (width == null && height == null) {
+            throw new IllegalArgumentException("Variant width or height must be informed");
+        }
+        checkDimension(width);
+        checkDimension(height);
+
+        ResizeFit resizeFit = fit == null ? ResizeFit.CONTAIN : ResizeFit.ofName(fit);
+        if (resizeFit == null) {
+            throw new IllegalArgumentException("Invalid variant fit: " + fit);
+        }
+        return new ImageVariant(width, height, resizeFit, null, null);
+    }
+
+    /**
+     * Cria uma variante que apenas converte o formato da imagem, sem redimensioná-la; originais maiores que
+     * {@link #MAX_DIMENSION} são reduzidos para caber nesse limite.
+     *
+     * @param format  o formato da variante
+     * @param quality a qualidade de 1 a 100, opcional; usada apenas em formatos com perdas
+     * @return a variante
+     * @throws IllegalArgumentException se a qualidade estiver fora dos limites
+     */
+    public static ImageVariant converted(ImageExtension format, Integer quality) {
+        return new ImageVariant(null, null, null, null, null).withFormat(format, quality);
+    }
+
+    /**
+     * @return uma cópia desta variante gravada no formato e na qualidade informados
+     * @throws IllegalArgumentException se a qualidade estiver fora dos limites
+     */
+    public ImageVariant withFormat(ImageExtension format, Integer quality) {
+        if (quality != null && (quality < 1 || quality > 100)) {
+            throw new IllegalArgumentException("Quality must be between 1 and 100");
+        }
+        return new ImageVariant(width, height, fit, format, format.isLossy() ? quality : null);
+    }
+
+    public boolean isResized() {
+        return width != null || height != null;
+    }
+
+    /**
+     * Identifica a variante de um conteúdo; usado como chave do cache de derivados.
+     *
+     * @param blobKey a chave do blob original
+     * @return a chave da variante
+     */
+    public String cacheKey(String blobKey) {
+        StringBuilder key = new StringBuilder(blobKey);
+        if (isResized()) {
+            key.append('-').append(dimension(width)).append('x').append(dimension(height))
+                    .append('-').append(fit.name().toLowerCase());
+        }
+        if (format != null) {
+            key.append('-').append(format.getFormatName());
+            if (quality != null) {
+                key.append("-q").append(quality);
+            }
+        }
+        return key.toString();
+    }
+
+    private static String dimension(Integer value) {
+        return value == null ? "auto" : value.toString();
+    }
+
+    private static void checkDimension(Integer value) {
+        if (value != null && (value < 1 || value > MAX_DIMENSION)) {
+            throw new IllegalArgumentException("Variant dimensions must be between 1 and " + MAX_DIMENSION);
+        }
+    }
+}
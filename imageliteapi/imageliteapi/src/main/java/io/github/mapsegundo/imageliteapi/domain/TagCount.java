@@ -0,0 +1,11 @@
+package io.github.mapsegundo.imageliteapi.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TagCount {
+    private String tag;
+    private Long count;
+}
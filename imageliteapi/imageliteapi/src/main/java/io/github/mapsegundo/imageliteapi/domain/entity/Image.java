@@ -1,18 +1,28 @@
 package io.github.mapsegundo.imageliteapi.domain.entity;
 
 import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.PixelFormat;
+import io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
-@Table
+@Table(indexes = {
+        @Index(name = "image_processing_status_idx", columnList = "processingStatus"),
+        @Index(name = "image_upload_date_id_idx", columnList = "uploadDate, id"),
+        @Index(name = "image_blob_key_idx", columnList = "blobKey"),
+        @Index(name = "image_owner_id_idx", columnList = "ownerId")
+})
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @NoArgsConstructor
@@ -20,6 +30,17 @@ import java.time.LocalDateTime;
 @Builder
 public class Image {
 
+    /**
+     * Tamanho máximo do documento das tags, incluindo os separadores.
+     */
+    public static final int MAX_TAG_DOCUMENT_LENGTH = 2000;
+
+    /**
+     * Versão atual do processamento. Deve ser incrementada quando o processamento passar a gerar novos dados,
+     * para que as imagens processadas antes sejam reprocessadas.
+     */
+    public static final int PROCESSING_VERSION = 1;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
@@ -34,11 +55,80 @@ public class Image {
     @Column
     @CreatedDate
     private LocalDateTime uploadDate;
+    @ElementCollection
+    @CollectionTable(
+            name = "image_tag",
+            joinColumns = @JoinColumn(name = "image_id"),
+            uniqueConstraints = @UniqueConstraint(name = "image_tag_image_tag_uk", columnNames = {"image_id", "tag"}),
+            indexes = @Index(name = "image_tag_tag_idx", columnList = "tag"))
+    @Column(name = "tag", length = 100)
+    @BatchSize(size = 100)
+    @Builder.Default
+    private Set<String> tags = new HashSet<>();
+    /**
+     * Cópia das tags separadas por espaço, mantida apenas para o índice de busca textual.
+     */
+    @Column(length = MAX_TAG_DOCUMENT_LENGTH)
+    private String tagDocument;
+    @Column(length = 64)
+    private String blobKey;
+    /**
+     * Id do usuário que enviou a imagem; nulo nas imagens enviadas antes do registro do dono.
+     */
+    @Column(length = 36)
+    private String ownerId;
+    @Column
+    @Enumerated(EnumType.STRING)
+    private ProcessingStatus processingStatus;
+    /**
+     * Início da execução atual do processamento; define quando ela é considerada interrompida.
+     */
     @Column
-    private String tags;
+    private LocalDateTime processingStartedAt;
+    /**
+     * Versão do processamento que gerou os dados da imagem; nula nas imagens processadas antes do registro da versão.
+     */
     @Column
-    @Lob
-    private byte[] file;
+    private Integer processingVersion;
+    @Column
+    private Integer width;
+    @Column
+    private Integer height;
+    @Column
+    @Enumerated(EnumType.STRING)
+    private PixelFormat pixelFormat;
+    /**
+     * Bits por canal, ou por pixel nas imagens com paleta.
+     */
+    @Column
+    private Integer bitDepth;
+    /**
+     * Cor predominante no formato {@code #rrggbb}, para exibir um fundo enquanto a imagem carrega.
+     */
+    @Column(length = 7)
+    private String dominantColor;
+    /**
+     * Hash perceptual (dHash) do conteúdo, calculado no processamento, usado na busca por imagens parecidas.
+     */
+    @Column
+    private Long perceptualHash;
+    /**
+     * Data do último download, gravada em lotes por {@link io.github.mapsegundo.imageliteapi.infra.repository.ImageAccessTracker};
+     * define quando o conteúdo pode ser arquivado.
+     */
+    @Column
+    private LocalDateTime lastAccessedAt;
+
+    public void setTags(Set<String> tags) {
+        this.tags = tags;
+        updateTagDocument();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateTagDocument() {
+        this.tagDocument = tags == null || tags.isEmpty() ? null : String.join(" ", tags);
+    }
 
     public String getFileName() {
         return getName().concat(".").concat(getExtension().name());
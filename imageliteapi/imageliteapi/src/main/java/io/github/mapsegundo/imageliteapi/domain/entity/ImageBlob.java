@@ -0,0 +1,42 @@
+package io.github.mapsegundo.imageliteapi.domain.entity;
+
+import io.github.mapsegundo.imageliteapi.domain.enums.StorageTier;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Um blob do armazenamento e a quantidade de imagens que o referenciam.
+ * Como o conteúdo é endereçado pelo hash, imagens idênticas compartilham o mesmo blob.
+ */
+@Entity
+@Table(name = "image_blob", indexes = @Index(name = "image_blob_reference_count_idx", columnList = "referenceCount"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageBlob {
+
+    @Id
+    @Column(length = 64)
+    private String blobKey;
+    @Column
+    private Long size;
+    @Column(nullable = false)
+    private long referenceCount;
+    /**
+     * Data em que a contagem passou a zero pela última vez, ou da criação do registro.
+     */
+    @Column
+    private LocalDateTime updatedAt;
+    /**
+     * Camada em que está o conteúdo; nulo nos registros anteriores ao arquivamento, equivalente a HOT.
+     */
+    @Column
+    @Enumerated(EnumType.STRING)
+    private StorageTier tier;
+}
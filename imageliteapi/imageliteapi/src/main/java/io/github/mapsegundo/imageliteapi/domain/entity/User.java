@@ -11,7 +11,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "auth_user")
+@Table(name = "auth_user", uniqueConstraints = @UniqueConstraint(name = "auth_user_email_uk", columnNames = "email"))
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @NoArgsConstructor
@@ -25,11 +25,16 @@ public class User {
 
     @Column
     private String name;
-    @Column
+    @Column(nullable = false)
     private String email;
     @Column
     private String password;
     @Column(name = "created_at")
     @CreatedDate
     private LocalDateTime createdAt;
+    /**
+     * Soma do tamanho das imagens do usuário, comparada à cota a cada envio; nulo equivale a zero.
+     */
+    @Column(name = "storage_used")
+    private Long storageUsed;
 }
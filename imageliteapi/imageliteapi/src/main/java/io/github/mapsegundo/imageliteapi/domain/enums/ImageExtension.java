@@ -7,15 +7,45 @@ import java.util.Arrays;
 
 public enum ImageExtension {
 
-    PNG(MediaType.IMAGE_PNG),
-    GIF(MediaType.IMAGE_GIF),
-    JPEG(MediaType.IMAGE_JPEG);
+    PNG(MediaType.IMAGE_PNG, new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}, true, false),
+    GIF(MediaType.IMAGE_GIF, new byte[]{'G', 'I', 'F', '8'}, true, false),
+    JPEG(MediaType.IMAGE_JPEG, new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}, false, true);
+
+    /**
+     * Quantidade de bytes do início do arquivo necessária para identificar qualquer formato suportado.
+     */
+    public static final int SIGNATURE_LENGTH = 8;
 
     @Getter
     private MediaType mediaType;
 
-    ImageExtension(MediaType mediaType) {
+    private final byte[] signature;
+
+    /**
+     * Indica se o formato guarda transparência; na conversão para um formato sem transparência
+     * as áreas transparentes ficam brancas.
+     */
+    @Getter
+    private final boolean transparency;
+
+    /**
+     * Indica se o formato tem compressão com perdas, em que a qualidade da gravação pode ser escolhida.
+     */
+    @Getter
+    private final boolean lossy;
+
+    ImageExtension(MediaType mediaType, byte[] signature, boolean transparency, boolean lossy) {
         this.mediaType = mediaType;
+        this.signature = signature;
+        this.transparency = transparency;
+        this.lossy = lossy;
+    }
+
+    /**
+     * @return o nome do formato para o ImageIO e extensão de arquivo
+     */
+    public String getFormatName() {
+        return name().toLowerCase();
     }
 
     public static ImageExtension valueOf(MediaType mediaType) {
@@ -31,4 +61,25 @@ public enum ImageExtension {
                 .findFirst()
                 .orElse(null);
     }
+
+    /**
+     * Identifica o formato pela assinatura (magic number) presente no início do conteúdo.
+     *
+     * @param header os primeiros bytes do conteúdo
+     * @param length a quantidade de bytes válidos em {@code header}
+     * @return o formato identificado, ou null se não for reconhecido
+     */
+    public static ImageExtension ofSignature(byte[] header, int length) {
+        return Arrays.stream(values())
+                .filter(ie -> ie.matches(header, length))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private boolean matches(byte[] header, int length) {
+        if (length < signature.length) {
+            return false;
+        }
+        return Arrays.equals(header, 0, signature.length, signature, 0, signature.length);
+    }
 }
@@ -0,0 +1,32 @@
+package io.github.mapsegundo.imageliteapi.domain.enums;
+
+import java.util.Arrays;
+
+/**
+ * Orientação de uma imagem, obtida das dimensões.
+ */
+public enum Orientation {
+    LANDSCAPE,
+    PORTRAIT,
+    SQUARE;
+
+    /**
+     * @return a orientação, ou null se as dimensões ainda não forem conhecidas
+     */
+    public static Orientation of(Integer width, Integer height) {
+        if (width == null || height == null) {
+            return null;
+        }
+        if (width > height) {
+            return LANDSCAPE;
+        }
+        return width < height ? PORTRAIT : SQUARE;
+    }
+
+    public static Orientation ofName(String name) {
+        return Arrays.stream(values())
+                .filter(orientation -> orientation.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.mapsegundo.imageliteapi.domain.enums;
+
+/**
+ * Formato dos pixels de uma imagem, lido do cabeçalho no processamento.
+ */
+public enum PixelFormat {
+    GRAYSCALE,
+    GRAYSCALE_ALPHA,
+    RGB,
+    RGBA,
+    /**
+     * Cores de uma paleta, como nos GIFs e em PNGs indexados.
+     */
+    INDEXED,
+    CMYK
+}
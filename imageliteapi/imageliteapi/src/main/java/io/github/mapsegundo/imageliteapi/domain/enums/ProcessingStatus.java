@@ -0,0 +1,18 @@
+package io.github.mapsegundo.imageliteapi.domain.enums;
+
+/**
+ * Situação do processamento assíncrono executado após o upload de uma imagem.
+ */
+public enum ProcessingStatus {
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED;
+
+    /**
+     * Indica se o processamento terminou; a partir daí o conteúdo da imagem não muda mais.
+     */
+    public boolean isFinished() {
+        return this == DONE || this == FAILED;
+    }
+}
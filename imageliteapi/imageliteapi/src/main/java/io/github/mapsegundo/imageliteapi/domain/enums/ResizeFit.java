@@ -0,0 +1,32 @@
+package io.github.mapsegundo.imageliteapi.domain.enums;
+
+import java.util.Arrays;
+
+/**
+ * Modo de ajuste de uma imagem às dimensões solicitadas para uma variante.
+ */
+public enum ResizeFit {
+
+    /**
+     * Mantém a proporção e cabe inteira dentro da caixa solicitada.
+     */
+    CONTAIN,
+
+    /**
+     * Mantém a proporção, cobre a caixa solicitada e recorta o excedente pelo centro.
+     */
+    COVER,
+
+    /**
+     * Ajusta a imagem às dimensões solicitadas sem manter a proporção; como nos outros modos,
+     * nenhuma dimensão passa da original.
+     */
+    FILL;
+
+    public static ResizeFit ofName(String name) {
+        return Arrays.stream(values())
+                .filter(fit -> fit.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.mapsegundo.imageliteapi.domain.enums;
+
+/**
+ * Camada do armazenamento em que está o conteúdo de um blob.
+ */
+public enum StorageTier {
+    /**
+     * Armazenamento principal, de onde os downloads são servidos.
+     */
+    HOT,
+    /**
+     * Arquivo compactado dos blobs sem acesso recente; o blob volta ao armazenamento principal
+     * na primeira leitura.
+     */
+    ARCHIVE
+}
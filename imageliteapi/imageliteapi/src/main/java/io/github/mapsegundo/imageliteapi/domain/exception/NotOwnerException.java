@@ -0,0 +1,8 @@
+package io.github.mapsegundo.imageliteapi.domain.exception;
+
+public class NotOwnerException extends RuntimeException {
+
+    public NotOwnerException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.mapsegundo.imageliteapi.domain.exception;
+
+public class QuotaExceededException extends RuntimeException {
+
+    public QuotaExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.mapsegundo.imageliteapi.domain.exception;
+
+public class StorageException extends RuntimeException {
+
+    public StorageException(String message) {
+        super(message);
+    }
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,15 +1,39 @@
 package io.github.mapsegundo.imageliteapi.domain.service;
 
+import io.github.mapsegundo.imageliteapi.domain.ImageCursor;
+import io.github.mapsegundo.imageliteapi.domain.ImagePage;
+import io.github.mapsegundo.imageliteapi.domain.ImageSearch;
+import io.github.mapsegundo.imageliteapi.domain.ImageSummary;
+import io.github.mapsegundo.imageliteapi.domain.ImageUpdate;
+import io.github.mapsegundo.imageliteapi.domain.ImageUpload;
+import io.github.mapsegundo.imageliteapi.domain.ImageUploadResult;
+import io.github.mapsegundo.imageliteapi.domain.ImageVariant;
+import io.github.mapsegundo.imageliteapi.domain.TagCount;
 import io.github.mapsegundo.imageliteapi.domain.entity.Image;
-import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import org.springframework.core.io.Resource;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
 public interface ImageService {
-    Image save(Image image);
+    Image save(Image image, InputStream content);
+
+    List<ImageUploadResult> saveAll(List<ImageUpload> uploads);
 
     Optional<Image> getById(String id);
 
-    List<Image> search(ImageExtension extension, String query);
+    Optional<Image> update(String id, String userId, ImageUpdate update);
+
+    boolean delete(String id, String userId);
+
+    Optional<Resource> getContent(Image image);
+
+    Optional<Resource> getVariant(Image image, ImageVariant variant);
+
+    ImagePage search(ImageSearch search, ImageCursor after, int limit);
+
+    List<ImageSummary> findSimilar(Image image, int maxDistance, int limit);
+
+    List<TagCount> countTags(ImageSearch search, String tagPrefix, int limit);
 }
@@ -0,0 +1,36 @@
+package io.github.mapsegundo.imageliteapi.infra.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registra a contagem de referências dos blobs usados por imagens gravadas antes da contagem existir.
+ * Apenas blobs ainda não registrados são incluídos, então a migração só tem efeito uma vez.
+ */
+@Component
+@Order(1)
+@Slf4j
+@RequiredArgsConstructor
+public class BlobReferenceMigration implements ApplicationRunner {
+
+    private static final String REGISTER_BLOBS = "INSERT INTO image_blob (blob_key, size, reference_count, updated_at) " +
+            "SELECT i.blob_key, max(i.size), count(*), current_timestamp FROM image i " +
+            "WHERE i.blob_key IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM image_blob b WHERE b.blob_key = i.blob_key) " +
+            "GROUP BY i.blob_key";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int registered = jdbcTemplate.update(REGISTER_BLOBS);
+        if (registered > 0) {
+            log.info("Blobs registrados na contagem de referências: {}", registered);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.mapsegundo.imageliteapi.infra.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra no Hibernate as funções de busca textual do PostgreSQL, para que possam ser usadas nas
+ * specifications. O documento gerado é o mesmo do índice criado por {@link FullTextSearchSupport}:
+ * o nome com peso A e as tags com peso B.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    static final String DOCUMENT = "(setweight(to_tsvector('simple', coalesce(?1, '')), 'A') || "
+            + "setweight(to_tsvector('simple', coalesce(?2, '')), 'B'))";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().registerPattern(
+                "fts_match",
+                "(" + DOCUMENT + " @@ to_tsquery('simple', ?3))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(
+                "fts_rank",
+                // Convertido para double para que o valor usado no cursor de paginação seja exato
+                "cast(ts_rank(" + DOCUMENT + ", to_tsquery('simple', ?3)) as double precision)",
+                types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
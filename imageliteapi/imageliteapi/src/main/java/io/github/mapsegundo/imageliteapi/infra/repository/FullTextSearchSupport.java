@@ -0,0 +1,100 @@
+package io.github.mapsegundo.imageliteapi.infra.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Suporte à busca textual indexada no PostgreSQL.
+ * Na inicialização, cria os índices usados pela busca: um índice GIN {@code tsvector} sobre nome e tags,
+ * um índice de trigramas sobre o nome, que permite que buscas por trecho do nome usem índice,
+ * e um índice para buscas por prefixo de tag.
+ * Em outros bancos (como o H2) a busca textual fica indisponível e as buscas usam LIKE.
+ */
+@Component
+@Slf4j
+public class FullTextSearchSupport implements ApplicationRunner {
+
+    private static final List<String> INDEXES = List.of(
+            // Índice da versão anterior, que indexava as tags como texto separado por vírgulas
+            "DROP INDEX CONCURRENTLY IF EXISTS image_search_document_idx",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS image_search_idx ON image USING gin (("
+                    + FullTextFunctionContributor.DOCUMENT.replace("?1", "name").replace("?2", "tag_document") + "))",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS image_name_trgm_idx ON image USING gin (upper(name) gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS image_tag_prefix_idx ON image_tag (tag varchar_pattern_ops)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean available;
+
+    public FullTextSearchSupport(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.available = "PostgreSQL".equals(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!available) {
+            log.info("Busca textual indexada indisponível para este banco; usando buscas por LIKE");
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível habilitar a extensão pg_trgm: {}", e.getMessage());
+        }
+        for (String index : INDEXES) {
+            try {
+                jdbcTemplate.execute(index);
+            } catch (DataAccessException e) {
+                log.warn("Não foi possível criar índice de busca: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Separa o texto digitado em termos pesquisáveis, em minúsculas.
+     *
+     * @param query o texto da busca
+     * @return os termos, possivelmente vazio
+     */
+    public static List<String> terms(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Converte os termos em uma consulta {@code tsquery} em que todos os termos devem aparecer.
+     * No nome cada termo vale como prefixo ("gat" encontra "gato"); nas tags, apenas a palavra inteira
+     * ("cat" não encontra a tag "category").
+     *
+     * @param terms os termos da busca
+     * @return a consulta, ou null se não houver termos
+     */
+    public static String toPrefixQuery(List<String> terms) {
+        if (terms.isEmpty()) {
+            return null;
+        }
+        return terms.stream()
+                .map(term -> "(" + term + ":*A | " + term + ":B)")
+                .collect(Collectors.joining(" & "));
+    }
+}
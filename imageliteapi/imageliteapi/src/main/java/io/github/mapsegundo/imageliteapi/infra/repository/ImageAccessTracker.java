@@ -0,0 +1,59 @@
+package io.github.mapsegundo.imageliteapi.infra.repository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registra a data do último acesso às imagens sem uma escrita no banco por download: os acessos ficam
+ * em memória, apenas o mais recente de cada imagem, e são gravados periodicamente em um lote JDBC.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ImageAccessTracker {
+
+    private static final String UPDATE_LAST_ACCESS = "UPDATE image SET last_accessed_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public void recordAccess(String imageId) {
+        pending.put(imageId, LocalDateTime.now());
+    }
+
+    /**
+     * Grava os acessos registrados desde a última gravação.
+     */
+    @Scheduled(fixedDelayString = "${imagelite.tiering.access-flush-interval}")
+    @PreDestroy
+    public void flush() {
+        List<Object[]> updates = new ArrayList<>();
+        for (Map.Entry<String, LocalDateTime> access : pending.entrySet()) {
+            // Só remove se não houve um acesso mais novo durante a varredura
+            if (pending.remove(access.getKey(), access.getValue())) {
+                updates.add(new Object[]{Timestamp.valueOf(access.getValue()), access.getKey()});
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_ACCESS, updates);
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível gravar {} acessos às imagens: {}", updates.size(), e.getMessage());
+        }
+    }
+}
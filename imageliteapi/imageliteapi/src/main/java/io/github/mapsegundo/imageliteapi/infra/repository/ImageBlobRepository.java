@@ -0,0 +1,64 @@
+package io.github.mapsegundo.imageliteapi.infra.repository;
+
+import io.github.mapsegundo.imageliteapi.domain.entity.ImageBlob;
+import io.github.mapsegundo.imageliteapi.domain.enums.StorageTier;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Contagem de referências dos blobs. As operações são atômicas no banco, de forma que envios
+ * simultâneos do mesmo conteúdo não perdem referências.
+ */
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    /**
+     * Acrescenta uma referência ao blob, registrando-o se ainda não existir.
+     */
+    @Modifying
+    @Transactional
+    @Query("insert into ImageBlob (blobKey, size, referenceCount, updatedAt) " +
+            "values (:blobKey, :size, 1, local datetime) " +
+            "on conflict(blobKey) do update set referenceCount = referenceCount + 1")
+    int retain(String blobKey, Long size);
+
+    /**
+     * Remove uma referência do blob.
+     */
+    @Modifying
+    @Transactional
+    @Query("update ImageBlob b set b.referenceCount = b.referenceCount - 1, " +
+            "b.updatedAt = case when b.referenceCount = 1 then local datetime else b.updatedAt end " +
+            "where b.blobKey = :blobKey and b.referenceCount > 0")
+    int release(String blobKey);
+
+    /**
+     * Blobs no armazenamento principal cujas imagens não são acessadas (nem foram enviadas) desde a data.
+     */
+    @Query("select b.blobKey from ImageBlob b " +
+            "where (b.tier is null or b.tier = io.github.mapsegundo.imageliteapi.domain.enums.StorageTier.HOT) " +
+            "and b.referenceCount > 0 " +
+            "and not exists (select 1 from Image i where i.blobKey = b.blobKey " +
+            "and coalesce(i.lastAccessedAt, i.uploadDate) >= :accessedSince)")
+    List<String> findColdBlobKeys(LocalDateTime accessedSince, Limit limit);
+
+    /**
+     * Blobs sem referências desde antes da data, travados até o fim da transação: um envio simultâneo
+     * do mesmo conteúdo só registra a referência depois que a coleta termina.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from ImageBlob b where b.referenceCount = 0 and (b.updatedAt is null or b.updatedAt < :releasedBefore)")
+    List<ImageBlob> findUnreferencedForUpdate(LocalDateTime releasedBefore, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("update ImageBlob b set b.tier = :tier where b.blobKey = :blobKey")
+    int updateTier(String blobKey, StorageTier tier);
+}
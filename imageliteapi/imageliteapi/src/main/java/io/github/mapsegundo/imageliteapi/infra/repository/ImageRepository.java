@@ -1,34 +1,98 @@
 package io.github.mapsegundo.imageliteapi.infra.repository;
 
+import io.github.mapsegundo.imageliteapi.config.CacheConfig;
 import io.github.mapsegundo.imageliteapi.domain.entity.Image;
-import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
-import org.springframework.data.jpa.domain.Specification;
+import io.github.mapsegundo.imageliteapi.domain.enums.PixelFormat;
+import io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.util.StringUtils;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-import static io.github.mapsegundo.imageliteapi.infra.repository.specs.GenericSpecs.conjunction;
-import static io.github.mapsegundo.imageliteapi.infra.repository.specs.ImageSpecs.*;
-import static org.springframework.data.jpa.domain.Specification.anyOf;
-import static org.springframework.data.jpa.domain.Specification.where;
+public interface ImageRepository extends JpaRepository<Image, String>, JpaSpecificationExecutor<Image>,
+        ImageSearchRepository {
 
-public interface ImageRepository extends JpaRepository<Image, String>, JpaSpecificationExecutor<Image> {
+    /**
+     * Carrega a imagem travando o registro até o fim da transação, para que a conclusão do processamento
+     * não sobrescreva (nem seja sobrescrita por) uma alteração ou exclusão.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Image i where i.id = :id")
+    Optional<Image> findForUpdate(String id);
 
-    default List<Image> findByExtensionAndNameOrTagsLike(ImageExtension extension, String query) {
+    List<Image> findByProcessingStatusAndUploadDateBefore(ProcessingStatus status, LocalDateTime uploadDate, Limit limit);
 
-        Specification<Image> spec = where(conjunction());
+    /**
+     * Passa a imagem pendente para em processamento, registrando o início. A troca funciona como uma trava:
+     * apenas uma execução processa a imagem, e o início identifica essa execução nas atualizações seguintes.
+     */
+    @Modifying
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.IMAGES, key = "#id")
+    @Query("update Image i set i.processingStatus = io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus.PROCESSING, " +
+            "i.processingStartedAt = :startedAt " +
+            "where i.id = :id and i.processingStatus = io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus.PENDING")
+    int startProcessing(String id, LocalDateTime startedAt);
 
-        if (extension != null) {
-            spec = spec.and(extensionEqual(extension));
-        }
+    @Modifying
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.IMAGES, key = "#id")
+    @Query("update Image i set i.processingStatus = io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus.FAILED " +
+            "where i.id = :id and i.processingStatus = io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus.PROCESSING " +
+            "and i.processingStartedAt = :startedAt")
+    int failProcessing(String id, LocalDateTime startedAt);
 
-        if (StringUtils.hasText(query)) {
+    /**
+     * Devolve à fila os processamentos iniciados antes da data, considerados interrompidos.
+     */
+    @Modifying
+    @Transactional
+    @Query("update Image i set i.processingStatus = io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus.PENDING " +
+            "where i.processingStatus = io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus.PROCESSING " +
+            "and (i.processingStartedAt is null or i.processingStartedAt < :startedBefore)")
+    int resetProcessingStartedBefore(LocalDateTime startedBefore);
 
-            spec = spec.and(anyOf(nameLike(query), tagsLike(query)));
-        }
+    /**
+     * Envia para a fila as imagens antigas sem situação. As que ainda guardam o conteúdo na coluna antiga
+     * só entram depois de migradas por {@link LegacyContentMigration}.
+     */
+    @Modifying
+    @Transactional
+    @Query("update Image i set i.processingStatus = io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus.PENDING " +
+            "where i.processingStatus is null and i.blobKey is not null")
+    int markUnprocessedAsPending();
 
-        return findAll(spec);
-    }
+    /**
+     * Conclui o processamento, apenas se a imagem ainda estiver com a mesma execução que o iniciou,
+     * registrando a versão atual do processamento.
+     *
+     * @return 0 se a imagem foi excluída ou devolvida à fila nesse meio tempo
+     */
+    @Modifying
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.IMAGES, key = "#id")
+    @Query("update Image i set i.blobKey = :blobKey, i.size = :size, i.width = :width, i.height = :height, " +
+            "i.pixelFormat = :pixelFormat, i.bitDepth = :bitDepth, i.dominantColor = :dominantColor, " +
+            "i.perceptualHash = :perceptualHash, " +
+            "i.processingVersion = io.github.mapsegundo.imageliteapi.domain.entity.Image.PROCESSING_VERSION, " +
+            "i.processingStatus = io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus.DONE " +
+            "where i.id = :id and i.processingStatus = io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus.PROCESSING " +
+            "and i.processingStartedAt = :startedAt")
+    int completeProcessing(String id, LocalDateTime startedAt, String blobKey, Long size, Integer width, Integer height,
+                           PixelFormat pixelFormat, Integer bitDepth, String dominantColor, Long perceptualHash);
+
+    /**
+     * Ids e hashes perceptuais das imagens processadas, para carregar o índice de imagens parecidas.
+     */
+    @Query("select i.id, i.perceptualHash from Image i where i.perceptualHash is not null")
+    List<Object[]> findPerceptualHashes();
 }
@@ -0,0 +1,42 @@
+package io.github.mapsegundo.imageliteapi.infra.repository;
+
+import io.github.mapsegundo.imageliteapi.domain.ImageCursor;
+import io.github.mapsegundo.imageliteapi.domain.ImageSearch;
+import io.github.mapsegundo.imageliteapi.domain.ImageSummary;
+import io.github.mapsegundo.imageliteapi.domain.TagCount;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consultas de pesquisa de imagens montadas com a Criteria API.
+ */
+public interface ImageSearchRepository {
+
+    /**
+     * Pesquisa os metadados das imagens pelos critérios informados. Com texto de busca no PostgreSQL,
+     * os resultados vêm ordenados por relevância; nos demais casos, das mais recentes para as mais antigas.
+     *
+     * @param search os critérios da pesquisa
+     * @param after  a posição da última imagem da página anterior (opcional)
+     * @param limit  quantidade máxima de imagens retornadas
+     * @throws IllegalArgumentException se o cursor não corresponder à ordenação da pesquisa
+     */
+    List<ImageSummary> search(ImageSearch search, ImageCursor after, int limit);
+
+    /**
+     * Recupera os metadados das imagens informadas, sem ordem definida.
+     *
+     * @param ids os ids das imagens
+     */
+    List<ImageSummary> findSummaries(Collection<String> ids);
+
+    /**
+     * Conta as tags das imagens encontradas por uma pesquisa, das mais frequentes para as menos frequentes.
+     *
+     * @param search    os critérios da pesquisa
+     * @param tagPrefix prefixo das tags contadas (opcional), para sugestões de autocompletar
+     * @param limit     quantidade máxima de tags retornadas
+     */
+    List<TagCount> countTags(ImageSearch search, String tagPrefix, int limit);
+}
@@ -0,0 +1,270 @@
+package io.github.mapsegundo.imageliteapi.infra.repository;
+
+import io.github.mapsegundo.imageliteapi.domain.ImageCursor;
+import io.github.mapsegundo.imageliteapi.domain.ImageSearch;
+import io.github.mapsegundo.imageliteapi.domain.ImageSummary;
+import io.github.mapsegundo.imageliteapi.domain.TagCount;
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.PixelFormat;
+import io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static io.github.mapsegundo.imageliteapi.infra.repository.specs.GenericSpecs.conjunction;
+import static io.github.mapsegundo.imageliteapi.infra.repository.specs.ImageSpecs.*;
+import static org.springframework.data.jpa.domain.Specification.anyOf;
+import static org.springframework.data.jpa.domain.Specification.where;
+
+public class ImageSearchRepositoryImpl implements ImageSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final FullTextSearchSupport fullTextSearch;
+
+    public ImageSearchRepositoryImpl(FullTextSearchSupport fullTextSearch) {
+        this.fullTextSearch = fullTextSearch;
+    }
+
+    @Override
+    public List<ImageSummary> search(ImageSearch search, ImageCursor after, int limit) {
+        String tsQuery = toTsQuery(search);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Image> root = query.from(Image.class);
+
+        Path<String> id = root.get("id");
+        Path<LocalDateTime> uploadDate = root.get("uploadDate");
+        Expression<Double> relevance = tsQuery != null
+                ? cb.function("fts_rank", Double.class, root.get("name"), root.get("tagDocument"), cb.literal(tsQuery))
+                : cb.nullLiteral(Double.class);
+
+        Predicate predicate = toSpecification(search, tsQuery).toPredicate(root, query, cb);
+        if (after != null) {
+            predicate = cb.and(predicate, tsQuery != null
+                    ? after(cb, relevance, uploadDate, id, after)
+                    : after(cb, uploadDate, id, after));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        if (tsQuery != null) {
+            orders.add(cb.desc(relevance));
+        }
+        orders.add(cb.desc(uploadDate));
+        orders.add(cb.desc(id));
+
+        query.multiselect(summarySelection(root, relevance))
+                .where(predicate)
+                .orderBy(orders);
+
+        List<ImageSummary> images = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(this::toSummary)
+                .toList();
+
+        loadTags(images);
+        return images;
+    }
+
+    @Override
+    public List<ImageSummary> findSummaries(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Image> root = query.from(Image.class);
+        query.multiselect(summarySelection(root, cb.nullLiteral(Double.class)))
+                .where(root.get("id").in(ids));
+
+        List<ImageSummary> images = entityManager.createQuery(query)
+                .getResultList()
+                .stream()
+                .map(this::toSummary)
+                .toList();
+
+        loadTags(images);
+        return images;
+    }
+
+    private List<Selection<?>> summarySelection(Root<Image> root, Expression<Double> relevance) {
+        return List.of(
+                root.get("id").alias("id"),
+                root.get("name").alias("name"),
+                root.get("extension").alias("extension"),
+                root.get("size").alias("size"),
+                root.get("width").alias("width"),
+                root.get("height").alias("height"),
+                root.get("pixelFormat").alias("pixelFormat"),
+                root.get("bitDepth").alias("bitDepth"),
+                root.get("dominantColor").alias("dominantColor"),
+                root.get("processingStatus").alias("processingStatus"),
+                root.get("uploadDate").alias("uploadDate"),
+                relevance.alias("relevance"));
+    }
+
+    private ImageSummary toSummary(Tuple tuple) {
+        return ImageSummary.builder()
+                .id(tuple.get("id", String.class))
+                .name(tuple.get("name", String.class))
+                .extension(tuple.get("extension", ImageExtension.class))
+                .size(tuple.get("size", Long.class))
+                .width(tuple.get("width", Integer.class))
+                .height(tuple.get("height", Integer.class))
+                .pixelFormat(tuple.get("pixelFormat", PixelFormat.class))
+                .bitDepth(tuple.get("bitDepth", Integer.class))
+                .dominantColor(tuple.get("dominantColor", String.class))
+                .processingStatus(tuple.get("processingStatus", ProcessingStatus.class))
+                .uploadDate(tuple.get("uploadDate", LocalDateTime.class))
+                .relevance(tuple.get("relevance", Double.class))
+                .build();
+    }
+
+    private void loadTags(List<ImageSummary> images) {
+        Map<String, List<String>> tags = findTags(images.stream().map(ImageSummary::getId).toList());
+        images.forEach(image -> image.setTags(tags.getOrDefault(image.getId(), List.of())));
+    }
+
+    @Override
+    public List<TagCount> countTags(ImageSearch search, String tagPrefix, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Image> root = query.from(Image.class);
+        Join<Image, String> tag = root.join("tags");
+
+        Predicate predicate = toSpecification(search, toTsQuery(search)).toPredicate(root, query, cb);
+        if (StringUtils.hasText(tagPrefix)) {
+            String prefix = tagPrefix.trim().toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            predicate = cb.and(predicate, cb.like(tag, prefix + "%", '\\'));
+        }
+
+        Expression<Long> count = cb.count(root);
+        query.multiselect(tag, count)
+                .where(predicate)
+                .groupBy(tag)
+                .orderBy(cb.desc(count), cb.asc(tag));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(tuple -> new TagCount(tuple.get(0, String.class), tuple.get(1, Long.class)))
+                .toList();
+    }
+
+    /**
+     * Imagens posteriores ao cursor na ordem (data de upload, id) decrescente. A primeira condição
+     * isolada permite que o banco percorra o índice de data a partir da posição do cursor.
+     */
+    private Predicate after(CriteriaBuilder cb, Path<LocalDateTime> uploadDate, Path<String> id, ImageCursor cursor) {
+        return cb.and(
+                cb.lessThanOrEqualTo(uploadDate, cursor.getUploadDate()),
+                cb.or(cb.lessThan(uploadDate, cursor.getUploadDate()), cb.lessThan(id, cursor.getId())));
+    }
+
+    private Predicate after(CriteriaBuilder cb, Expression<Double> relevance, Path<LocalDateTime> uploadDate,
+                            Path<String> id, ImageCursor cursor) {
+        if (cursor.getRelevance() == null) {
+            throw new IllegalArgumentException("Cursor does not match the search");
+        }
+        return cb.or(
+                cb.lessThan(relevance, cursor.getRelevance()),
+                cb.and(cb.equal(relevance, cursor.getRelevance()), after(cb, uploadDate, id, cursor)));
+    }
+
+    /**
+     * Carrega as tags das imagens de uma página em uma única consulta.
+     */
+    private Map<String, List<String>> findTags(List<String> imageIds) {
+        if (imageIds.isEmpty()) {
+            return Map.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Image> root = query.from(Image.class);
+        Join<Image, String> tag = root.join("tags");
+        query.multiselect(root.get("id"), tag)
+                .where(root.get("id").in(imageIds))
+                .orderBy(cb.asc(tag));
+
+        return entityManager.createQuery(query)
+                .getResultList()
+                .stream()
+                .collect(Collectors.groupingBy(tuple -> tuple.get(0, String.class),
+                        Collectors.mapping(tuple -> tuple.get(1, String.class), Collectors.toList())));
+    }
+
+    private String toTsQuery(ImageSearch search) {
+        return fullTextSearch.isAvailable()
+                ? FullTextSearchSupport.toPrefixQuery(FullTextSearchSupport.terms(search.getQuery()))
+                : null;
+    }
+
+    /**
+     * Monta a specification da pesquisa. O texto de busca encontra imagens pelo nome (palavras ou trecho)
+     * ou por uma tag igual a um dos termos.
+     */
+    private Specification<Image> toSpecification(ImageSearch search, String tsQuery) {
+        Specification<Image> spec = where(conjunction());
+
+        if (search.getExtension() != null) {
+            spec = spec.and(extensionEqual(search.getExtension()));
+        }
+
+        if (search.getTags() != null) {
+            for (String tag : search.getTags()) {
+                spec = spec.and(hasTag(tag));
+            }
+        }
+
+        if (search.getMinWidth() != null) {
+            spec = spec.and(widthAtLeast(search.getMinWidth()));
+        }
+
+        if (search.getMinHeight() != null) {
+            spec = spec.and(heightAtLeast(search.getMinHeight()));
+        }
+
+        if (search.getOrientation() != null) {
+            spec = spec.and(orientationEqual(search.getOrientation()));
+        }
+
+        if (StringUtils.hasText(search.getQuery())) {
+            String text = search.getQuery().trim();
+            if (tsQuery != null) {
+                spec = spec.and(anyOf(textMatches(tsQuery), nameLike(text)));
+            } else {
+                List<Specification<Image>> matches = new ArrayList<>();
+                matches.add(nameLike(text));
+                FullTextSearchSupport.terms(text).forEach(term -> matches.add(hasTag(term)));
+                spec = spec.and(anyOf(matches));
+            }
+        }
+
+        return spec;
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.mapsegundo.imageliteapi.infra.repository;
+
+import io.github.mapsegundo.imageliteapi.domain.exception.StorageException;
+import io.github.mapsegundo.imageliteapi.infra.storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Blob;
+import java.util.List;
+
+/**
+ * Migra o conteúdo das imagens gravadas pela versão anterior, que ficava na coluna {@code file}
+ * (um large object do PostgreSQL), para o {@link BlobStore}. Cada imagem é migrada em uma transação própria:
+ * o conteúdo é copiado em streaming, a imagem passa a referenciar o blob e o large object é removido.
+ * Imagens com falha continuam com a coluna preenchida e são tentadas de novo na próxima inicialização.
+ * Executada apenas no PostgreSQL, antes do registro da contagem de referências dos blobs.
+ */
+@Component
+@Order(0)
+@Slf4j
+@RequiredArgsConstructor
+public class LegacyContentMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String LEGACY_COLUMN_TYPE = "SELECT data_type FROM information_schema.columns " +
+            "WHERE table_schema = current_schema() AND table_name = 'image' AND column_name = 'file'";
+
+    private static final String PENDING_IDS = "SELECT id FROM image WHERE file IS NOT NULL AND id > ? " +
+            "ORDER BY id LIMIT " + BATCH_SIZE;
+
+    private static final String SELECT_CONTENT = "SELECT file FROM image WHERE id = ? AND file IS NOT NULL FOR UPDATE";
+
+    private static final String UPDATE_IMAGE = "UPDATE image SET blob_key = ?, size = ?, file = NULL WHERE id = ?";
+
+    private static final String UNLINK_CONTENT = "SELECT lo_unlink(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FullTextSearchSupport fullTextSearch;
+    private final ImageBlobRepository blobRepository;
+    private final BlobStore blobStore;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!fullTextSearch.isAvailable()) {
+            return;
+        }
+        List<String> types = jdbcTemplate.queryForList(LEGACY_COLUMN_TYPE, String.class);
+        if (types.isEmpty()) {
+            return;
+        }
+        if (!"oid".equals(types.get(0))) {
+            log.warn("Coluna image.file com tipo {} não suportado; conteúdo antigo não migrado", types.get(0));
+            return;
+        }
+
+        int migrated = 0;
+        int failed = 0;
+        String lastId = "";
+        List<String> ids;
+        while (!(ids = jdbcTemplate.queryForList(PENDING_IDS, String.class, lastId)).isEmpty()) {
+            for (String id : ids) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> migrate(id));
+                    migrated++;
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.error("Erro na migração do conteúdo da imagem {}: {}", id, e.getMessage());
+                }
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+        if (migrated > 0 || failed > 0) {
+            log.info("Conteúdo de imagens migrado para o armazenamento de blobs: {}, com erro: {}", migrated, failed);
+        }
+    }
+
+    private void migrate(String id) {
+        jdbcTemplate.query(SELECT_CONTENT, rs -> {
+            long oid = rs.getLong(1);
+            Blob content = rs.getBlob(1);
+            long size = content.length();
+            String blobKey;
+            try (InputStream in = content.getBinaryStream()) {
+                blobKey = blobStore.put(in);
+            } catch (IOException e) {
+                throw new StorageException("Erro ao ler o conteúdo antigo da imagem " + id, e);
+            }
+            // Como no envio, a referência só vale se a coleta não removeu o blob antes dela
+            blobRepository.retain(blobKey, size);
+            if (!blobStore.exists(blobKey)) {
+                throw new StorageException("Blob removido durante a migração: " + blobKey);
+            }
+            jdbcTemplate.update(UPDATE_IMAGE, blobKey, size, id);
+            jdbcTemplate.queryForObject(UNLINK_CONTENT, Integer.class, oid);
+        }, id);
+    }
+}
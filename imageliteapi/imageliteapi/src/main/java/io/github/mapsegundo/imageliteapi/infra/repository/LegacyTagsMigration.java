@@ -0,0 +1,58 @@
+package io.github.mapsegundo.imageliteapi.infra.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Migra as tags gravadas pela versão anterior, em que ficavam em uma única coluna de texto separada
+ * por vírgulas, para a tabela {@code image_tag}. A coluna antiga é esvaziada ao final, então a migração
+ * só tem efeito uma vez. Executada apenas no PostgreSQL.
+ */
+@Component
+@Order(0)
+@Slf4j
+@RequiredArgsConstructor
+public class LegacyTagsMigration implements ApplicationRunner {
+
+    private static final String LEGACY_COLUMN_EXISTS = "SELECT count(*) FROM information_schema.columns " +
+            "WHERE table_schema = current_schema() AND table_name = 'image' AND column_name = 'tags'";
+
+    private static final String COPY_TAGS = "INSERT INTO image_tag (image_id, tag) " +
+            "SELECT DISTINCT i.id, left(lower(trim(t.tag)), 100) FROM image i " +
+            "CROSS JOIN LATERAL unnest(string_to_array(i.tags, ',')) AS t(tag) " +
+            "WHERE i.tags IS NOT NULL AND trim(t.tag) <> '' " +
+            "AND NOT EXISTS (SELECT 1 FROM image_tag e WHERE e.image_id = i.id AND e.tag = left(lower(trim(t.tag)), 100))";
+
+    private static final String CLEAR_LEGACY_COLUMN = "UPDATE image i SET tags = NULL, " +
+            "tag_document = (SELECT string_agg(t.tag, ' ') FROM image_tag t WHERE t.image_id = i.id) " +
+            "WHERE i.tags IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FullTextSearchSupport fullTextSearch;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!fullTextSearch.isAvailable()) {
+            return;
+        }
+        Integer legacyColumns = jdbcTemplate.queryForObject(LEGACY_COLUMN_EXISTS, Integer.class);
+        if (legacyColumns == null || legacyColumns == 0) {
+            return;
+        }
+        Integer migrated = transactionTemplate.execute(status -> {
+            int tags = jdbcTemplate.update(COPY_TAGS);
+            jdbcTemplate.update(CLEAR_LEGACY_COLUMN);
+            return tags;
+        });
+        if (migrated != null && migrated > 0) {
+            log.info("Tags migradas para a tabela image_tag: {}", migrated);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.mapsegundo.imageliteapi.infra.repository;
+
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Devolve para a fila de processamento as imagens processadas por versões anteriores do processamento
+ * ({@link Image#PROCESSING_VERSION}), que não calculavam, por exemplo, o hash perceptual (usado na busca por
+ * imagens parecidas) ou o formato dos pixels e a cor dominante. Ao concluir, o processamento grava a versão
+ * atual, então a migração só tem efeito uma vez por versão.
+ */
+@Component
+@Order(1)
+@Slf4j
+@RequiredArgsConstructor
+public class ProcessingBackfillMigration implements ApplicationRunner {
+
+    /**
+     * Imagens processadas antes do registro da versão: as que já têm o hash perceptual e a cor dominante,
+     * os últimos dados acrescentados, foram processadas pela versão 1.
+     */
+    private static final String STAMP_FIRST_VERSION = "UPDATE image SET processing_version = 1 " +
+            "WHERE processing_status = 'DONE' AND processing_version IS NULL " +
+            "AND perceptual_hash IS NOT NULL AND dominant_color IS NOT NULL";
+
+    private static final String MARK_PENDING = "UPDATE image SET processing_status = 'PENDING' " +
+            "WHERE processing_status = 'DONE' AND (processing_version IS NULL OR processing_version < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.update(STAMP_FIRST_VERSION);
+        int pending = jdbcTemplate.update(MARK_PENDING, Image.PROCESSING_VERSION);
+        if (pending > 0) {
+            log.info("Imagens enviadas para reprocessamento: {}", pending);
+        }
+    }
+}
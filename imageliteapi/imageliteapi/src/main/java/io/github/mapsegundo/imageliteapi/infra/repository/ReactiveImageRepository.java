@@ -0,0 +1,212 @@
+package io.github.mapsegundo.imageliteapi.infra.repository;
+
+import io.github.mapsegundo.imageliteapi.domain.ImageCursor;
+import io.github.mapsegundo.imageliteapi.domain.ImageSearch;
+import io.github.mapsegundo.imageliteapi.domain.ImageSummary;
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.PixelFormat;
+import io.github.mapsegundo.imageliteapi.domain.enums.ProcessingStatus;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Consultas de imagens pelo R2DBC, sem bloquear threads, usadas pela API reativa ({@code /v2/images}).
+ * Equivale às consultas de leitura do {@link ImageRepository}: as mesmas colunas, os mesmos filtros
+ * e a mesma paginação por chave da pesquisa. A gravação continua pelo JPA.
+ */
+@Repository
+@ConditionalOnProperty(name = "imagelite.reactive.enabled", havingValue = "true")
+public class ReactiveImageRepository {
+
+    private static final String SUMMARY_COLUMNS = "id, name, extension, size, width, height, pixel_format, " +
+            "bit_depth, dominant_color, processing_status, upload_date";
+
+    private static final String DOCUMENT = FullTextFunctionContributor.DOCUMENT
+            .replace("?1", "name").replace("?2", "tag_document");
+
+    private static final String RELEVANCE = "cast(ts_rank(" + DOCUMENT + ", to_tsquery('simple', :tsQuery)) as double precision)";
+
+    private final DatabaseClient databaseClient;
+    private final FullTextSearchSupport fullTextSearch;
+
+    public ReactiveImageRepository(DatabaseClient databaseClient, FullTextSearchSupport fullTextSearch) {
+        this.databaseClient = databaseClient;
+        this.fullTextSearch = fullTextSearch;
+    }
+
+    public Mono<Image> findById(String id) {
+        return databaseClient.sql("SELECT " + SUMMARY_COLUMNS + ", blob_key FROM image WHERE id = :id")
+                .bind("id", id)
+                .map(row -> Image.builder()
+                        .id(row.get("id", String.class))
+                        .name(row.get("name", String.class))
+                        .extension(enumOf(ImageExtension.class, row.get("extension", String.class)))
+                        .size(row.get("size", Long.class))
+                        .width(row.get("width", Integer.class))
+                        .height(row.get("height", Integer.class))
+                        .pixelFormat(enumOf(PixelFormat.class, row.get("pixel_format", String.class)))
+                        .bitDepth(row.get("bit_depth", Integer.class))
+                        .dominantColor(row.get("dominant_color", String.class))
+                        .processingStatus(enumOf(ProcessingStatus.class, row.get("processing_status", String.class)))
+                        .uploadDate(row.get("upload_date", LocalDateTime.class))
+                        .blobKey(row.get("blob_key", String.class))
+                        .build())
+                .one();
+    }
+
+    /**
+     * Pesquisa imagens; veja {@link ImageSearchRepository#search}.
+     *
+     * @throws IllegalArgumentException (no fluxo) se o cursor não corresponder à pesquisa
+     */
+    public Flux<ImageSummary> search(ImageSearch search, ImageCursor after, int limit) {
+        String tsQuery = fullTextSearch.isAvailable()
+                ? FullTextSearchSupport.toPrefixQuery(FullTextSearchSupport.terms(search.getQuery()))
+                : null;
+        if (after != null && tsQuery != null && after.getRelevance() == null) {
+            return Flux.error(new IllegalArgumentException("Cursor does not match the search"));
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(SUMMARY_COLUMNS)
+                .append(", ").append(tsQuery != null ? RELEVANCE : "cast(null as double precision)").append(" AS relevance")
+                .append(" FROM image WHERE ").append(where(search, tsQuery, params));
+        if (tsQuery != null) {
+            params.put("tsQuery", tsQuery);
+        }
+
+        if (after != null) {
+            String afterDate = "(upload_date <= :afterDate AND (upload_date < :afterDate OR id < :afterId))";
+            sql.append(" AND ").append(tsQuery != null
+                    ? "(" + RELEVANCE + " < :afterRelevance OR (" + RELEVANCE + " = :afterRelevance AND " + afterDate + "))"
+                    : afterDate);
+            params.put("afterDate", after.getUploadDate());
+            params.put("afterId", after.getId());
+            if (tsQuery != null) {
+                params.put("afterRelevance", after.getRelevance());
+            }
+        }
+
+        sql.append(" ORDER BY ").append(tsQuery != null ? "relevance DESC, " : "")
+                .append("upload_date DESC, id DESC LIMIT ").append(limit);
+
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql(sql.toString());
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            query = query.bind(param.getKey(), param.getValue());
+        }
+        return query.map(this::toSummary)
+                .all()
+                .collectList()
+                .flatMapMany(this::loadTags);
+    }
+
+    /**
+     * Condições da pesquisa; veja {@code ImageSearchRepositoryImpl#toSpecification}.
+     */
+    private String where(ImageSearch search, String tsQuery, Map<String, Object> params) {
+        List<String> conditions = new ArrayList<>();
+        conditions.add("1 = 1");
+
+        if (search.getExtension() != null) {
+            conditions.add("extension = :extension");
+            params.put("extension", search.getExtension().name());
+        }
+
+        if (search.getTags() != null) {
+            int i = 0;
+            for (String tag : search.getTags()) {
+                conditions.add("id IN (SELECT image_id FROM image_tag WHERE tag = :tag" + i + ")");
+                params.put("tag" + i++, tag);
+            }
+        }
+
+        if (search.getMinWidth() != null) {
+            conditions.add("width >= :minWidth");
+            params.put("minWidth", search.getMinWidth());
+        }
+
+        if (search.getMinHeight() != null) {
+            conditions.add("height >= :minHeight");
+            params.put("minHeight", search.getMinHeight());
+        }
+
+        if (search.getOrientation() != null) {
+            conditions.add(switch (search.getOrientation()) {
+                case LANDSCAPE -> "width > height";
+                case PORTRAIT -> "width < height";
+                case SQUARE -> "width = height";
+            });
+        }
+
+        if (StringUtils.hasText(search.getQuery())) {
+            String text = search.getQuery().trim();
+            params.put("nameLike", "%" + text.toUpperCase() + "%");
+            if (tsQuery != null) {
+                conditions.add("(" + DOCUMENT + " @@ to_tsquery('simple', :tsQuery) OR upper(name) LIKE :nameLike)");
+            } else {
+                List<String> terms = FullTextSearchSupport.terms(text);
+                if (terms.isEmpty()) {
+                    conditions.add("upper(name) LIKE :nameLike");
+                } else {
+                    conditions.add("(upper(name) LIKE :nameLike OR id IN (SELECT image_id FROM image_tag WHERE tag IN (:terms)))");
+                    params.put("terms", terms);
+                }
+            }
+        }
+
+        return String.join(" AND ", conditions);
+    }
+
+    private ImageSummary toSummary(Readable row) {
+        return ImageSummary.builder()
+                .id(row.get("id", String.class))
+                .name(row.get("name", String.class))
+                .extension(enumOf(ImageExtension.class, row.get("extension", String.class)))
+                .size(row.get("size", Long.class))
+                .width(row.get("width", Integer.class))
+                .height(row.get("height", Integer.class))
+                .pixelFormat(enumOf(PixelFormat.class, row.get("pixel_format", String.class)))
+                .bitDepth(row.get("bit_depth", Integer.class))
+                .dominantColor(row.get("dominant_color", String.class))
+                .processingStatus(enumOf(ProcessingStatus.class, row.get("processing_status", String.class)))
+                .uploadDate(row.get("upload_date", LocalDateTime.class))
+                .relevance(row.get("relevance", Double.class))
+                .build();
+    }
+
+    /**
+     * Carrega as tags das imagens de uma página em uma única consulta.
+     */
+    private Flux<ImageSummary> loadTags(List<ImageSummary> images) {
+        if (images.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql("SELECT image_id, tag FROM image_tag WHERE image_id IN (:ids) ORDER BY tag")
+                .bind("ids", images.stream().map(ImageSummary::getId).toList())
+                .map(row -> Map.entry(row.get("image_id", String.class), row.get("tag", String.class)))
+                .all()
+                .collect(Collectors.groupingBy(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())))
+                .flatMapMany(tags -> {
+                    images.forEach(image -> image.setTags(tags.getOrDefault(image.getId(), List.of())));
+                    return Flux.fromIterable(images);
+                });
+    }
+
+    private static <E extends Enum<E>> E enumOf(Class<E> type, String name) {
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+}
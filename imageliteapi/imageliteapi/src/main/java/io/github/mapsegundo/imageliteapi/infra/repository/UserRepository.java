@@ -2,7 +2,30 @@ package io.github.mapsegundo.imageliteapi.infra.repository;
 
 import io.github.mapsegundo.imageliteapi.domain.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends JpaRepository<User, String> {
     User findByEmail(String email);
+
+    /**
+     * Soma os bytes ao espaço ocupado pelo usuário se o total não passar do máximo. A verificação e
+     * a soma são uma única operação no banco, então envios simultâneos não ultrapassam a cota.
+     *
+     * @return 0 se a cota seria excedida
+     */
+    @Modifying
+    @Transactional
+    @Query("update User u set u.storageUsed = coalesce(u.storageUsed, 0) + :bytes " +
+            "where u.id = :id and coalesce(u.storageUsed, 0) + :bytes <= :maxBytes")
+    int reserveStorage(String id, long bytes, long maxBytes);
+
+    /**
+     * Soma os bytes ao espaço ocupado pelo usuário, sem verificar a cota; negativo para liberar espaço.
+     */
+    @Modifying
+    @Transactional
+    @Query("update User u set u.storageUsed = coalesce(u.storageUsed, 0) + :bytes where u.id = :id")
+    int addStorageUsed(String id, long bytes);
 }
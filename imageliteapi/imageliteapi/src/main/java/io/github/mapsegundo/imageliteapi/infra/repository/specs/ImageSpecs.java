@@ -2,6 +2,11 @@ package io.github.mapsegundo.imageliteapi.infra.repository.specs;
 
 import io.github.mapsegundo.imageliteapi.domain.entity.Image;
 import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.Orientation;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
 public class ImageSpecs {
@@ -16,7 +21,49 @@ public class ImageSpecs {
         return (root, q, cb) -> cb.like(cb.upper(root.get("name")), "%" + name.toUpperCase() + "%");
     }
 
-    public static Specification<Image> tagsLike(String tags) {
-        return (root, q, cb) -> cb.like(cb.upper(root.get("tags")), "%" + tags.toUpperCase() + "%");
+    public static Specification<Image> widthAtLeast(int width) {
+        return (root, q, cb) -> cb.greaterThanOrEqualTo(root.get("width"), width);
+    }
+
+    public static Specification<Image> heightAtLeast(int height) {
+        return (root, q, cb) -> cb.greaterThanOrEqualTo(root.get("height"), height);
+    }
+
+    /**
+     * Imagens com a orientação, comparando as dimensões; imagens ainda sem dimensões não são incluídas.
+     */
+    public static Specification<Image> orientationEqual(Orientation orientation) {
+        return (root, q, cb) -> {
+            Path<Integer> width = root.get("width");
+            Path<Integer> height = root.get("height");
+            return switch (orientation) {
+                case LANDSCAPE -> cb.greaterThan(width, height);
+                case PORTRAIT -> cb.lessThan(width, height);
+                case SQUARE -> cb.equal(width, height);
+            };
+        };
+    }
+
+    /**
+     * Imagens que possuem a tag. A subconsulta não é correlacionada, então o banco parte do índice de tags
+     * em vez de verificar as tags de cada imagem.
+     */
+    public static Specification<Image> hasTag(String tag) {
+        return (root, q, cb) -> {
+            Subquery<String> tagged = q.subquery(String.class);
+            Root<Image> image = tagged.from(Image.class);
+            Join<Image, String> tags = image.join("tags");
+            tagged.select(image.get("id")).where(cb.equal(tags, tag));
+            return root.get("id").in(tagged);
+        };
+    }
+
+    /**
+     * Busca textual do PostgreSQL no nome e nas tags; veja
+     * {@link io.github.mapsegundo.imageliteapi.infra.repository.FullTextFunctionContributor}.
+     */
+    public static Specification<Image> textMatches(String tsQuery) {
+        return (root, q, cb) -> cb.isTrue(cb.function("fts_match", Boolean.class,
+                root.get("name"), root.get("tagDocument"), cb.literal(tsQuery)));
     }
 }
@@ -0,0 +1,31 @@
+package io.github.mapsegundo.imageliteapi.infra.storage;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Armazenamento de arquivo dos blobs sem acesso recente, mais barato e mais lento que o principal.
+ * Pode ser substituído por um armazenamento de objetos compatível com S3.
+ */
+public interface ArchiveStore {
+
+    /**
+     * Arquiva o conteúdo do blob. Se o blob já estiver arquivado, não faz nada.
+     *
+     * @param key     a chave do blob
+     * @param content o conteúdo original
+     */
+    void put(String key, InputStream content);
+
+    /**
+     * Abre o conteúdo original de um blob arquivado.
+     *
+     * @param key a chave do blob
+     * @return o stream do conteúdo, que deve ser fechado, ou vazio se não estiver arquivado
+     */
+    Optional<InputStream> open(String key);
+
+    boolean exists(String key);
+
+    void delete(String key);
+}
@@ -0,0 +1,33 @@
+package io.github.mapsegundo.imageliteapi.infra.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Abstração para o armazenamento do conteúdo binário das imagens.
+ * O conteúdo é endereçado pelo seu hash, de forma que o banco guarda apenas a chave do blob.
+ */
+public interface BlobStore {
+
+    /**
+     * Grava o conteúdo lido do stream, sem carregá-lo inteiro em memória.
+     *
+     * @param content o stream com o conteúdo a ser gravado
+     * @return a chave (hash SHA-256 em hexadecimal) do blob gravado
+     */
+    String put(InputStream content);
+
+    /**
+     * Recupera o conteúdo de um blob para leitura em streaming.
+     *
+     * @param key a chave do blob
+     * @return o recurso do blob, ou vazio se não existir
+     */
+    Optional<Resource> get(String key);
+
+    boolean exists(String key);
+
+    void delete(String key);
+}
@@ -0,0 +1,114 @@
+package io.github.mapsegundo.imageliteapi.infra.storage;
+
+import io.github.mapsegundo.imageliteapi.domain.exception.StorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implementação de {@link ArchiveStore} em um diretório local, que pode estar em um volume mais barato.
+ * Cada blob é gravado compactado com gzip, na mesma estrutura de diretórios do armazenamento principal.
+ */
+@Component
+@Slf4j
+public class CompressedFileArchiveStore implements ArchiveStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path tmp;
+
+    public CompressedFileArchiveStore(@Value("${imagelite.tiering.archive-location}") String location) {
+        this.root = Paths.get(location).toAbsolutePath().normalize();
+        this.tmp = root.resolve("tmp");
+        try {
+            Files.createDirectories(tmp);
+        } catch (IOException e) {
+            throw new StorageException("Não foi possível criar o diretório do arquivo: " + root, e);
+        }
+    }
+
+    @Override
+    public void put(String key, InputStream content) {
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            return;
+        }
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(tmp, "archive-", ".part");
+            try (OutputStream out = new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE), BUFFER_SIZE)) {
+                content.transferTo(out);
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            deleteQuietly(temp);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new StorageException("Erro ao arquivar o blob " + key, e);
+        }
+    }
+
+    @Override
+    public Optional<InputStream> open(String key) {
+        try {
+            InputStream file = Files.newInputStream(resolve(key));
+            return Optional.of(new GZIPInputStream(new BufferedInputStream(file, BUFFER_SIZE), BUFFER_SIZE));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new StorageException("Erro ao ler o blob arquivado " + key, e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new StorageException("Erro ao remover o blob arquivado " + key, e);
+        }
+    }
+
+    private Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key + ".gz");
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o arquivo temporário {}: {}", path, e.getMessage());
+        }
+    }
+}
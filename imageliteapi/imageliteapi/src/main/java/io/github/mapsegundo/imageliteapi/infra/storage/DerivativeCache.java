@@ -0,0 +1,289 @@
+package io.github.mapsegundo.imageliteapi.infra.storage;
+
+import io.github.mapsegundo.imageliteapi.domain.exception.StorageException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Cache em disco de arquivos derivados das imagens (variantes redimensionadas, por exemplo).
+ * O espaço ocupado é limitado e, quando excedido, os arquivos usados há mais tempo são removidos (LRU).
+ * Requisições simultâneas pelo mesmo derivado aguardam uma única geração.
+ * O derivado é devolvido já mapeado em memória, o que é feito com a trava adquirida: uma remoção do LRU
+ * disparada por outra requisição pode apagar o arquivo antes de a resposta ser enviada, mas o conteúdo mapeado
+ * continua legível.
+ * O índice é protegido por um {@link ReentrantLock} em vez de {@code synchronized}, que prenderia
+ * threads virtuais à thread de plataforma durante o acesso ao disco.
+ * Acertos, falhas e ocupação são publicados nas métricas {@code imagelite.variants.*}.
+ */
+@Component
+@Slf4j
+public class DerivativeCache implements MeterBinder {
+
+    private final Path root;
+    private final Path tmp;
+    private final long maxBytes;
+
+    /**
+     * Tamanho de cada derivado indexado pela chave, em ordem de acesso.
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<String, CompletableFuture<Resource>> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long totalBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DerivativeCache(@Value("${imagelite.variants.location}") String location,
+                           @Value("${imagelite.variants.max-size}") DataSize maxSize) {
+        this.root = Paths.get(location).toAbsolutePath().normalize();
+        this.tmp = root.resolve("tmp");
+        this.maxBytes = maxSize.toBytes();
+        try {
+            Files.createDirectories(tmp);
+            load();
+        } catch (IOException e) {
+            throw new StorageException("Não foi possível inicializar o cache de derivados: " + root, e);
+        }
+    }
+
+    /**
+     * Recupera um derivado do cache, gerando-o se ainda não existir.
+     *
+     * @param key    a chave do derivado
+     * @param writer gera o conteúdo do derivado quando não estiver em cache
+     * @return o recurso do derivado
+     */
+    public Resource getOrCreate(String key, DerivativeWriter writer) {
+        Resource cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<Resource> generation = new CompletableFuture<>();
+        CompletableFuture<Resource> running = inFlight.putIfAbsent(key, generation);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            Resource resource = generate(key, writer);
+            generation.complete(resource);
+            return resource;
+        } catch (RuntimeException e) {
+            generation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("imagelite.variants.gets", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Acessos ao cache de derivados")
+                .register(registry);
+        FunctionCounter.builder("imagelite.variants.gets", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Acessos ao cache de derivados")
+                .register(registry);
+        // Leituras sem a trava: os valores podem estar levemente defasados, o que basta para as métricas
+        Gauge.builder("imagelite.variants.count", entries, Map::size)
+                .description("Quantidade de derivados no cache")
+                .register(registry);
+        Gauge.builder("imagelite.variants.size", this, cache -> cache.totalBytes)
+                .baseUnit(BaseUnits.BYTES)
+                .description("Espaço ocupado pelos derivados no disco")
+                .register(registry);
+    }
+
+    /**
+     * Remove todos os derivados cuja chave começa com o prefixo informado.
+     *
+     * @param prefix o prefixo das chaves a serem removidas
+     */
+    public void evictByPrefix(String prefix) {
+        lock.lock();
+        try {
+            Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Long> entry = it.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    it.remove();
+                    remove(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Resource lookup(String key) {
+        lock.lock();
+        try {
+            Long size = entries.get(key);
+            if (size == null) {
+                return null;
+            }
+            try {
+                return open(key, root.resolve(key));
+            } catch (IOException e) {
+                // Arquivo removido fora do cache
+                entries.remove(key);
+                totalBytes -= size;
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Resource generate(String key, DerivativeWriter writer) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(tmp, "derivative-", ".part");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writer.write(out);
+            }
+            Path target = root.resolve(key);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            lock.lock();
+            try {
+                record(key, Files.size(target));
+                return open(key, target);
+            } finally {
+                lock.unlock();
+            }
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new StorageException("Erro ao gerar o derivado " + key, e);
+        } catch (RuntimeException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+    }
+
+    private void record(String key, long size) {
+        lock.lock();
+        try {
+            Long previous = entries.put(key, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+
+            Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                it.remove();
+                remove(eldest.getKey(), eldest.getValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mapeia o derivado em memória; o mapeamento continua válido depois que o arquivo é removido.
+     * Deve ser chamado com a trava do cache adquirida.
+     */
+    private static Resource open(String key, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ByteBufferResource(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), "Derivado " + key);
+        }
+    }
+
+    /**
+     * Deve ser chamado com a trava do cache adquirida.
+     */
+    private void remove(String key, long size) {
+        totalBytes -= size;
+        deleteQuietly(root.resolve(key));
+    }
+
+    /**
+     * Reconstrói o índice a partir dos arquivos já existentes, do acesso mais antigo para o mais recente.
+     */
+    private void load() throws IOException {
+        try (Stream<Path> files = Files.list(tmp)) {
+            files.forEach(DerivativeCache::deleteQuietly);
+        }
+        try (Stream<Path> files = Files.list(root)) {
+            files.filter(Files::isRegularFile)
+                    .map(path -> Map.entry(path, attributes(path)))
+                    .sorted(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()))
+                    .forEach(entry -> record(entry.getKey().getFileName().toString(), entry.getValue().size()));
+        }
+        log.info("Cache de derivados carregado: {} arquivos, {} bytes", entries.size(), totalBytes);
+    }
+
+    private static BasicFileAttributes attributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new StorageException("Erro ao ler o derivado " + path, e);
+        }
+    }
+
+    private static Resource await(CompletableFuture<Resource> generation) {
+        try {
+            return generation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o arquivo {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Gera o conteúdo de um derivado.
+     */
+    @FunctionalInterface
+    public interface DerivativeWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
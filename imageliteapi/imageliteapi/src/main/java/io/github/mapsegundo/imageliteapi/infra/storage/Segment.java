@@ -0,0 +1,110 @@
+package io.github.mapsegundo.imageliteapi.infra.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Um arquivo de segmento do {@link SegmentBlobStore}, mapeado inteiro em memória.
+ * A escrita só acontece com a trava do armazenamento; a leitura de trechos já gravados não precisa dela.
+ */
+class Segment {
+
+    private final int id;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Fim do último registro gravado; os próximos registros são gravados a partir daqui.
+     */
+    long writePosition;
+
+    /**
+     * Bytes de registros removidos ou substituídos, recuperados na compactação.
+     */
+    long deadBytes;
+
+    private Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Abre o segmento, criando o arquivo se necessário. Um arquivo novo é mapeado com a capacidade informada;
+     * um existente, com o seu tamanho atual.
+     */
+    static Segment open(int id, Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            long mapped = size > 0 ? Math.min(size, Integer.MAX_VALUE) : capacity;
+            return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, mapped));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    int getId() {
+        return id;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    boolean fits(int recordSize) {
+        return writePosition + recordSize <= buffer.capacity();
+    }
+
+    /**
+     * Fatia do segmento, compartilhando a memória mapeada.
+     */
+    ByteBuffer slice(long offset, int length) {
+        return buffer.slice((int) offset, length);
+    }
+
+    /**
+     * Grava o registro a partir da posição de escrita e a avança.
+     *
+     * @return a posição em que o registro foi gravado
+     */
+    long append(ByteBuffer header, ByteBuffer payload) {
+        long offset = writePosition;
+        ByteBuffer target = buffer.duplicate();
+        target.position((int) offset);
+        target.put(header);
+        if (payload != null) {
+            target.put(payload);
+        }
+        writePosition = target.position();
+        return offset;
+    }
+
+    /**
+     * Envia ao disco as páginas alteradas.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Envia ao disco as páginas alteradas e fecha o arquivo. Fatias já entregues continuam válidas
+     * até serem descartadas, mesmo que o arquivo seja removido.
+     */
+    void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
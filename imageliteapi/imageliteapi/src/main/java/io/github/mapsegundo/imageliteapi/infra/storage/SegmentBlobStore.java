@@ -0,0 +1,389 @@
+package io.github.mapsegundo.imageliteapi.infra.storage;
+
+import io.github.mapsegundo.imageliteapi.domain.exception.StorageException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * {@link BlobStore} que agrupa os blobs pequenos (ícones, miniaturas) em arquivos de segmento, em vez de
+ * um arquivo por blob; os demais continuam no {@link LocalFileSystemBlobStore}.
+ * <p>
+ * Os segmentos só recebem gravações no final. Cada registro guarda a chave, o tamanho e o CRC do conteúdo,
+ * e a remoção grava um registro de exclusão, então o índice chave → posição, mantido em memória,
+ * é reconstruído lendo os segmentos na inicialização. Os segmentos são mapeados em memória e as leituras
+ * devolvem fatias do mapeamento, sem cópia para o heap. A compactação periódica regrava os registros ainda
+ * válidos dos segmentos com muitos bytes removidos e apaga o arquivo antigo.
+ * <p>
+ * As gravações não são enviadas ao disco a cada registro: as páginas alteradas ficam no cache do sistema
+ * operacional, que as grava depois, e são enviadas ao disco no fechamento e antes de a compactação apagar
+ * um segmento. Uma queda do processo não perde registros, mas uma queda do sistema operacional pode perder
+ * os últimos, inclusive de blobs já referenciados por imagens; na inicialização a leitura para no primeiro
+ * registro incompleto ou com CRC inválido.
+ */
+@Component
+@Slf4j
+public class SegmentBlobStore implements BlobStore, MeterBinder {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{6})\\.seg");
+    private static final int MAGIC = 0x494d4753;
+    private static final byte DATA = 1;
+    private static final byte TOMBSTONE = 2;
+    private static final int KEY_BYTES = 32;
+    /**
+     * Marcador, tipo, chave, tamanho e CRC do conteúdo.
+     */
+    private static final int HEADER_BYTES = 4 + 1 + KEY_BYTES + 4 + 4;
+
+    private final LocalFileSystemBlobStore files;
+    private final Path root;
+    private final int maxObjectSize;
+    private final int segmentSize;
+    private final double compactionThreshold;
+
+    private final ConcurrentNavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Entry> index = new ConcurrentHashMap<>();
+    /**
+     * Protege as gravações; as leituras usam apenas o índice.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private Segment active;
+
+    public SegmentBlobStore(LocalFileSystemBlobStore files,
+                            @Value("${imagelite.storage.segments.location}") String location,
+                            @Value("${imagelite.storage.segments.max-object-size}") DataSize maxObjectSize,
+                            @Value("${imagelite.storage.segments.segment-size}") DataSize segmentSize,
+                            @Value("${imagelite.storage.segments.compaction-threshold}") double compactionThreshold) {
+        if (segmentSize.toBytes() > Integer.MAX_VALUE || maxObjectSize.toBytes() + HEADER_BYTES > segmentSize.toBytes()) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+        }
+        this.files = files;
+        this.root = Paths.get(location).toAbsolutePath().normalize();
+        this.maxObjectSize = (int) maxObjectSize.toBytes();
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.compactionThreshold = compactionThreshold;
+        try {
+            Files.createDirectories(root);
+            load();
+        } catch (IOException e) {
+            throw new StorageException("Não foi possível inicializar os segmentos: " + root, e);
+        }
+    }
+
+    /**
+     * Lê o início do stream: se o conteúdo couber em {@code max-object-size}, é gravado em um segmento;
+     * senão, o trecho lido e o restante do stream vão para um arquivo próprio.
+     */
+    @Override
+    public String put(InputStream content) {
+        if (maxObjectSize == 0) {
+            return files.put(content);
+        }
+        byte[] head;
+        try {
+            head = content.readNBytes(maxObjectSize + 1);
+        } catch (IOException e) {
+            throw new StorageException("Erro ao gravar o blob", e);
+        }
+        if (head.length > maxObjectSize) {
+            return files.put(new SequenceInputStream(new ByteArrayInputStream(head), content));
+        }
+
+        String key = HexFormat.of().formatHex(newDigest().digest(head));
+        // Blobs gravados antes dos segmentos continuam no arquivo próprio
+        if (!index.containsKey(key) && !files.exists(key)) {
+            append(key, head);
+        }
+        return key;
+    }
+
+    @Override
+    public Optional<Resource> get(String key) {
+        Entry entry = index.get(key);
+        if (entry == null) {
+            return files.get(key);
+        }
+        return Optional.of(new ByteBufferResource(entry.segment().slice(entry.offset(), entry.length()),
+                "blob " + key + " [" + entry.segment().getPath().getFileName() + "]"));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return index.containsKey(key) || files.exists(key);
+    }
+
+    @Override
+    public void delete(String key) {
+        files.delete(key);
+        lock.lock();
+        try {
+            Entry entry = index.remove(key);
+            if (entry == null) {
+                return;
+            }
+            entry.segment().deadBytes += HEADER_BYTES + entry.length();
+            Segment segment = write(TOMBSTONE, key, null);
+            segment.deadBytes += HEADER_BYTES;
+        } catch (IOException e) {
+            throw new StorageException("Erro ao remover o blob " + key, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compacta os segmentos fechados em que a fração de bytes removidos passou de
+     * {@code compaction-threshold}: os registros válidos são regravados no segmento ativo e o arquivo
+     * antigo é apagado. Leituras em andamento continuam com o mapeamento antigo.
+     */
+    @Scheduled(fixedDelayString = "${imagelite.storage.segments.compaction-interval}")
+    public void compact() {
+        for (Segment segment : List.copyOf(segments.values())) {
+            lock.lock();
+            try {
+                if (segment == active || segment.writePosition == 0
+                        || segment.deadBytes < segment.writePosition * compactionThreshold) {
+                    continue;
+                }
+                long reclaimed = segment.deadBytes;
+                compact(segment);
+                log.info("Segmento {} compactado: {} bytes liberados", segment.getPath().getFileName(), reclaimed);
+            } catch (IOException e) {
+                log.warn("Não foi possível compactar o segmento {}: {}", segment.getPath().getFileName(), e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Os mapas são concorrentes; já as posições de cada segmento são alteradas com a trava de escrita,
+        // então os totais em bytes podem não refletir a gravação em andamento
+        Gauge.builder("imagelite.segments.count", segments, Map::size)
+                .description("Quantidade de arquivos de segmento")
+                .register(registry);
+        Gauge.builder("imagelite.segments.objects", index, Map::size)
+                .description("Quantidade de blobs gravados nos segmentos")
+                .register(registry);
+        Gauge.builder("imagelite.segments.size", segments,
+                        all -> all.values().stream().mapToLong(segment -> segment.writePosition).sum())
+                .baseUnit(BaseUnits.BYTES)
+                .description("Bytes gravados nos segmentos, incluindo os removidos")
+                .register(registry);
+        Gauge.builder("imagelite.segments.dead", segments,
+                        all -> all.values().stream().mapToLong(segment -> segment.deadBytes).sum())
+                .baseUnit(BaseUnits.BYTES)
+                .description("Bytes removidos, recuperados na compactação")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                try {
+                    segment.close();
+                } catch (IOException e) {
+                    log.warn("Não foi possível fechar o segmento {}: {}", segment.getPath().getFileName(), e.getMessage());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(String key, byte[] content) {
+        lock.lock();
+        try {
+            if (index.containsKey(key)) {
+                return;
+            }
+            write(DATA, key, ByteBuffer.wrap(content));
+        } catch (IOException e) {
+            throw new StorageException("Erro ao gravar o blob", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava um registro no segmento ativo, abrindo um novo se não couber, e atualiza o índice.
+     * O registro não é enviado ao disco aqui (veja a descrição da classe).
+     * Deve ser chamado com a trava adquirida.
+     *
+     * @return o segmento em que o registro foi gravado
+     */
+    private Segment write(byte type, String key, ByteBuffer payload) throws IOException {
+        int length = payload == null ? 0 : payload.remaining();
+        if (!active.fits(HEADER_BYTES + length)) {
+            active = openSegment(active.getId() + 1);
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .put(type)
+                .put(HexFormat.of().parseHex(key))
+                .putInt(length)
+                .putInt(payload == null ? 0 : crc(payload))
+                .flip();
+        long offset = active.append(header, payload);
+        if (type == DATA) {
+            index.put(key, new Entry(active, offset + HEADER_BYTES, length));
+        }
+        return active;
+    }
+
+    /**
+     * Deve ser chamado com a trava adquirida.
+     */
+    private void compact(Segment segment) throws IOException {
+        boolean olderSegments = segments.firstKey() < segment.getId();
+        int firstTarget = active.getId();
+        long position = 0;
+        while (position < segment.writePosition) {
+            ByteBuffer header = segment.slice(position, HEADER_BYTES);
+            byte type = header.get(4);
+            String key = keyOf(header);
+            int length = header.getInt(5 + KEY_BYTES);
+            Entry entry = index.get(key);
+            if (type == DATA && entry != null && entry.segment() == segment && entry.offset() == position + HEADER_BYTES) {
+                write(DATA, key, segment.slice(entry.offset(), length));
+            } else if (type == TOMBSTONE && olderSegments && entry == null) {
+                // A exclusão ainda esconde registros do mesmo blob nos segmentos mais antigos
+                write(TOMBSTONE, key, null).deadBytes += HEADER_BYTES;
+            }
+            position += HEADER_BYTES + length;
+        }
+        // Os registros regravados precisam estar no disco antes que o arquivo antigo deixe de existir
+        for (Segment target : segments.tailMap(firstTarget).values()) {
+            target.force();
+        }
+        segments.remove(segment.getId());
+        segment.close();
+        Files.deleteIfExists(segment.getPath());
+    }
+
+    /**
+     * Reconstrói o índice lendo os segmentos em ordem; o último passa a ser o segmento ativo.
+     */
+    private void load() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(root)) {
+            paths.forEach(path -> {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    ids.add(Integer.parseInt(matcher.group(1)));
+                }
+            });
+        }
+        ids.sort(null);
+        for (int id : ids) {
+            scan(openSegment(id));
+        }
+        active = segments.isEmpty() ? openSegment(1) : segments.lastEntry().getValue();
+        log.info("Segmentos carregados: {} arquivos, {} blobs", segments.size(), index.size());
+    }
+
+    /**
+     * Lê os registros do segmento até o primeiro inválido, que marca o fim do que foi gravado
+     * (o restante do arquivo, ou uma gravação interrompida).
+     */
+    private void scan(Segment segment) {
+        long position = 0;
+        while (position + HEADER_BYTES <= segment.capacity()) {
+            ByteBuffer header = segment.slice(position, HEADER_BYTES);
+            byte type = header.get(4);
+            int length = header.getInt(5 + KEY_BYTES);
+            if (header.getInt(0) != MAGIC || (type != DATA && type != TOMBSTONE)
+                    || length < 0 || position + HEADER_BYTES + length > segment.capacity()) {
+                break;
+            }
+            String key = keyOf(header);
+            if (type == DATA) {
+                ByteBuffer payload = segment.slice(position + HEADER_BYTES, length);
+                if (crc(payload) != header.getInt(5 + KEY_BYTES + 4)) {
+                    log.warn("Registro corrompido no segmento {} na posição {}", segment.getPath().getFileName(), position);
+                    break;
+                }
+                Entry previous = index.put(key, new Entry(segment, position + HEADER_BYTES, length));
+                if (previous != null) {
+                    previous.segment().deadBytes += HEADER_BYTES + previous.length();
+                }
+            } else {
+                Entry previous = index.remove(key);
+                if (previous != null) {
+                    previous.segment().deadBytes += HEADER_BYTES + previous.length();
+                }
+                segment.deadBytes += HEADER_BYTES;
+            }
+            position += HEADER_BYTES + length;
+        }
+        segment.writePosition = position;
+    }
+
+    private Segment openSegment(int id) throws IOException {
+        Segment segment = Segment.open(id, root.resolve("segment-%06d.seg".formatted(id)), segmentSize);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private static String keyOf(ByteBuffer header) {
+        byte[] key = new byte[KEY_BYTES];
+        header.get(5, key);
+        return HexFormat.of().formatHex(key);
+    }
+
+    private static int crc(ByteBuffer content) {
+        CRC32 crc = new CRC32();
+        crc.update(content.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Posição do conteúdo de um blob em um segmento.
+     */
+    private record Entry(Segment segment, long offset, int length) {
+    }
+}
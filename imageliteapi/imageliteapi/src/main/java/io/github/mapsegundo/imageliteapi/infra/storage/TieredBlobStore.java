@@ -0,0 +1,138 @@
+package io.github.mapsegundo.imageliteapi.infra.storage;
+
+import io.github.mapsegundo.imageliteapi.domain.enums.StorageTier;
+import io.github.mapsegundo.imageliteapi.domain.exception.StorageException;
+import io.github.mapsegundo.imageliteapi.infra.repository.ImageBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link BlobStore} em duas camadas: o armazenamento principal ({@link SegmentBlobStore}), de onde os
+ * downloads são servidos, e o {@link ArchiveStore}, para onde vão os blobs sem acesso recente.
+ * Um blob arquivado volta ao armazenamento principal na primeira leitura; leituras simultâneas do mesmo
+ * blob aguardam uma única restauração. A cópia arquivada é mantida, então arquivar o blob de novo
+ * apenas remove a cópia principal.
+ */
+@Component
+@Primary
+@Slf4j
+public class TieredBlobStore implements BlobStore {
+
+    private final SegmentBlobStore hot;
+    private final ArchiveStore archive;
+    private final ImageBlobRepository blobRepository;
+
+    /**
+     * Restaurações em andamento, por chave do blob.
+     */
+    private final Map<String, CompletableFuture<Void>> rehydrating = new ConcurrentHashMap<>();
+
+    public TieredBlobStore(SegmentBlobStore hot, ArchiveStore archive, ImageBlobRepository blobRepository) {
+        this.hot = hot;
+        this.archive = archive;
+        this.blobRepository = blobRepository;
+    }
+
+    @Override
+    public String put(InputStream content) {
+        String key = hot.put(content);
+        if (archive.exists(key)) {
+            // O mesmo conteúdo foi enviado de novo depois de arquivado
+            blobRepository.updateTier(key, StorageTier.HOT);
+        }
+        return key;
+    }
+
+    @Override
+    public Optional<Resource> get(String key) {
+        Optional<Resource> blob = hot.get(key);
+        if (blob.isPresent() || !archive.exists(key)) {
+            return blob;
+        }
+        CompletableFuture<Void> restore = new CompletableFuture<>();
+        CompletableFuture<Void> running = rehydrating.putIfAbsent(key, restore);
+        if (running != null) {
+            try {
+                running.join();
+            } catch (CompletionException e) {
+                throw new StorageException("Erro ao restaurar o blob arquivado " + key, e.getCause());
+            }
+            return hot.get(key);
+        }
+        try {
+            rehydrate(key);
+            restore.complete(null);
+        } catch (RuntimeException e) {
+            restore.completeExceptionally(e);
+            throw e;
+        } finally {
+            rehydrating.remove(key, restore);
+        }
+        return hot.get(key);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return hot.exists(key) || archive.exists(key);
+    }
+
+    @Override
+    public void delete(String key) {
+        hot.delete(key);
+        archive.delete(key);
+    }
+
+    /**
+     * Move o blob para o arquivo: grava a cópia arquivada, se ainda não existir, e remove a cópia principal.
+     *
+     * @param key a chave do blob
+     * @return true se o blob estava no armazenamento principal
+     */
+    public boolean archive(String key) {
+        if (rehydrating.containsKey(key)) {
+            return false;
+        }
+        Optional<Resource> blob = hot.get(key);
+        if (blob.isEmpty()) {
+            if (archive.exists(key)) {
+                blobRepository.updateTier(key, StorageTier.ARCHIVE);
+            }
+            return false;
+        }
+        try (InputStream content = blob.get().getInputStream()) {
+            archive.put(key, content);
+        } catch (IOException e) {
+            throw new StorageException("Erro ao arquivar o blob " + key, e);
+        }
+        blobRepository.updateTier(key, StorageTier.ARCHIVE);
+        hot.delete(key);
+        return true;
+    }
+
+    private void rehydrate(String key) {
+        InputStream content = archive.open(key)
+                .orElseThrow(() -> new StorageException("Blob arquivado não encontrado: " + key));
+        String restored;
+        try (content) {
+            restored = hot.put(content);
+        } catch (IOException e) {
+            throw new StorageException("Erro ao restaurar o blob arquivado " + key, e);
+        }
+        if (!restored.equals(key)) {
+            hot.delete(restored);
+            throw new StorageException("Conteúdo arquivado corrompido para o blob " + key);
+        }
+        blobRepository.updateTier(key, StorageTier.HOT);
+        log.info("Blob {} restaurado do arquivo", key);
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.domain.ImageVariant;
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import io.github.mapsegundo.imageliteapi.domain.enums.PixelFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ImageFormatNegotiatorTest {
+
+    private final ImageFormatNegotiator negotiator = new ImageFormatNegotiator(85, 60, List.of(40, 60, 75, 85, 95));
+
+    @Test
+    void servesOriginalWhenAccepted() {
+        assertNull(negotiate(opaquePng(), null, null));
+        assertNull(negotiate(opaquePng(), "image/png", null));
+        assertNull(negotiate(opaquePng(), "image/*", null));
+        assertNull(negotiate(opaquePng(), "*/*", null));
+    }
+
+    @Test
+    void ignoresInvalidAccept() {
+        assertNull(negotiate(opaquePng(), "not a media type", null));
+    }
+
+    @Test
+    void convertsWhenOriginalIsNotAccepted() {
+        ImageVariant variant = negotiate(opaquePng(), "image/jpeg", null);
+
+        assertEquals(ImageExtension.JPEG, variant.getFormat());
+        assertEquals(85, variant.getQuality());
+    }
+
+    @Test
+    void explicitZeroQualityRejectsOriginal() {
+        ImageVariant variant = negotiate(opaquePng(), "image/png;q=0, */*", null);
+
+        assertEquals(ImageExtension.JPEG, variant.getFormat());
+    }
+
+    @Test
+    void mostSpecificEntryWins() {
+        assertNull(negotiate(opaquePng(), "image/*;q=0, image/png", null));
+    }
+
+    @Test
+    void transparentImagesAreNotConvertedToJpeg() {
+        Image image = image(ImageExtension.PNG, PixelFormat.RGBA);
+
+        assertNull(negotiate(image, "image/jpeg", null));
+    }
+
+    @Test
+    void transparentImagesFallBackToPng() {
+        Image image = image(ImageExtension.GIF, PixelFormat.INDEXED);
+
+        ImageVariant variant = negotiate(image, "image/jpeg, image/png", null);
+
+        assertEquals(ImageExtension.PNG, variant.getFormat());
+        assertNull(variant.getQuality());
+    }
+
+    @Test
+    void unprocessedPngIsNotAssumedOpaque() {
+        Image image = image(ImageExtension.PNG, null);
+
+        assertNull(negotiate(image, "image/jpeg", null));
+        assertNull(negotiate(image, null, "on"));
+    }
+
+    @Test
+    void saveDataServesOpaqueImagesAsReducedJpeg() {
+        ImageVariant png = negotiate(opaquePng(), null, "on");
+        ImageVariant jpeg = negotiate(image(ImageExtension.JPEG, null), null, "ON");
+
+        assertEquals(ImageExtension.JPEG, png.getFormat());
+        assertEquals(60, png.getQuality());
+        assertEquals(ImageExtension.JPEG, jpeg.getFormat());
+        assertEquals(60, jpeg.getQuality());
+    }
+
+    @Test
+    void saveDataIsIgnoredForTransparentImagesAndGifs() {
+        assertNull(negotiate(image(ImageExtension.PNG, PixelFormat.GRAYSCALE_ALPHA), null, "on"));
+        assertNull(negotiate(image(ImageExtension.GIF, PixelFormat.RGB), null, "on"));
+    }
+
+    @Test
+    void saveDataRespectsAccept() {
+        assertNull(negotiate(opaquePng(), "image/png", "on"));
+        assertNull(negotiate(opaquePng(), null, "off"));
+    }
+
+    @Test
+    void keepsRequestedResize() {
+        ImageVariant variant = negotiator.negotiate(opaquePng(), ImageVariant.of(100, null, null), null, null,
+                "image/jpeg", null);
+
+        assertEquals(100, variant.getWidth());
+        assertEquals(ImageExtension.JPEG, variant.getFormat());
+    }
+
+    @Test
+    void explicitFormatOverridesAccept() {
+        ImageVariant variant = negotiator.negotiate(opaquePng(), null, "jpeg", null, "image/png", null);
+
+        assertEquals(ImageExtension.JPEG, variant.getFormat());
+        assertEquals(85, variant.getQuality());
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        assertThrows(IllegalArgumentException.class,
+                () -> negotiator.negotiate(opaquePng(), null, "webp", null, null, null));
+    }
+
+    @Test
+    void roundsQualityToConfiguredLevels() {
+        Image jpeg = image(ImageExtension.JPEG, PixelFormat.RGB);
+
+        assertEquals(40, negotiator.negotiate(jpeg, null, null, 1, null, null).getQuality());
+        assertEquals(75, negotiator.negotiate(jpeg, null, null, 70, null, null).getQuality());
+        assertEquals(85, negotiator.negotiate(jpeg, null, null, 80, null, null).getQuality());
+        assertEquals(95, negotiator.negotiate(jpeg, null, "jpeg", 100, null, null).getQuality());
+    }
+
+    @Test
+    void rejectsInvalidQuality() {
+        Image jpeg = image(ImageExtension.JPEG, PixelFormat.RGB);
+
+        assertThrows(IllegalArgumentException.class, () -> negotiator.negotiate(jpeg, null, null, 0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> negotiator.negotiate(jpeg, null, null, 101, null, null));
+        assertThrows(IllegalArgumentException.class, () -> negotiator.negotiate(opaquePng(), null, null, 50, null, null));
+    }
+
+    private ImageVariant negotiate(Image image, String accept, String saveData) {
+        return negotiator.negotiate(image, null, null, null, accept, saveData);
+    }
+
+    private static Image opaquePng() {
+        return image(ImageExtension.PNG, PixelFormat.RGB);
+    }
+
+    private static Image image(ImageExtension extension, PixelFormat pixelFormat) {
+        return Image.builder().extension(extension).pixelFormat(pixelFormat).build();
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.domain.entity.Image;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageMapperTest {
+
+    private final ImageMapper mapper = new ImageMapper();
+
+    @Test
+    void normalizesTags() {
+        Image image = mapper.mapToImage("name", List.of(" Sky ", "sky", "", "SEA"), null);
+
+        assertEquals(Set.of("sky", "sea"), image.getTags());
+    }
+
+    @Test
+    void rejectsLongTag() {
+        assertThrows(IllegalArgumentException.class,
+                () -> mapper.mapToImage("name", List.of("a".repeat(101)), null));
+    }
+
+    @Test
+    void rejectsTooManyTags() {
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            tags.add("tag" + i);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> mapper.mapToImage("name", tags, null));
+    }
+
+    @Test
+    void tagDocumentFitsItsColumn() {
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tags.add(i + "x".repeat(98));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> mapper.mapToImage("name", tags, null));
+
+        Image image = mapper.mapToImage("name", tags.subList(0, 19), null);
+        image.setTags(image.getTags());
+        assertTrue(image.getTagDocument().length() <= Image.MAX_TAG_DOCUMENT_LENGTH);
+    }
+
+    @Test
+    void rejectsTooManyTagsOnUpdate() {
+        ImageUpdateDTO dto = new ImageUpdateDTO();
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            tags.add("tag" + i);
+        }
+        dto.setTags(tags);
+
+        assertThrows(IllegalArgumentException.class, () -> mapper.mapToUpdate(dto));
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.domain.ImageVariant;
+import io.github.mapsegundo.imageliteapi.domain.enums.ImageExtension;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ImageVariantRendererTest {
+
+    private final ImageVariantRenderer renderer = new ImageVariantRenderer(1);
+
+    @Test
+    void conversionKeepsSmallImageSize() throws IOException {
+        BufferedImage result = render(png(300, 200), ImageVariant.converted(ImageExtension.JPEG, 85));
+
+        assertEquals(300, result.getWidth());
+        assertEquals(200, result.getHeight());
+    }
+
+    @Test
+    void conversionIsBoundedByMaxDimension() throws IOException {
+        BufferedImage result = render(png(6000, 1500), ImageVariant.converted(ImageExtension.JPEG, 85));
+
+        assertEquals(ImageVariant.MAX_DIMENSION, result.getWidth());
+        assertEquals(512, result.getHeight());
+    }
+
+    @Test
+    void containKeepsAspectRatio() throws IOException {
+        BufferedImage result = render(png(400, 200), ImageVariant.of(100, 100, null));
+
+        assertEquals(100, result.getWidth());
+        assertEquals(50, result.getHeight());
+    }
+
+    @Test
+    void coverCropsToBox() throws IOException {
+        BufferedImage result = render(png(400, 200), ImageVariant.of(100, 100, "cover"));
+
+        assertEquals(100, result.getWidth());
+        assertEquals(100, result.getHeight());
+    }
+
+    @Test
+    void fillStretchesWithoutUpscaling() throws IOException {
+        BufferedImage result = render(png(400, 200), ImageVariant.of(100, 300, "fill"));
+
+        assertEquals(100, result.getWidth());
+        assertEquals(200, result.getHeight());
+    }
+
+    private BufferedImage render(byte[] source, ImageVariant variant) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(new ByteArrayInputStream(source), ImageExtension.PNG, variant, out);
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JpegMetadataStripperTest {
+
+    private static final byte[] SOI = {(byte) 0xFF, (byte) 0xD8};
+    private static final byte[] DQT = segment(0xDB, new byte[]{0, 1, 2, 3});
+    /**
+     * Início dos dados comprimidos, com um 0xFF escapado, e o fim da imagem.
+     */
+    private static final byte[] SCAN = {(byte) 0xFF, (byte) 0xDA, 0, 4, 1, 2, 0x55, (byte) 0xFF, 0, 0x66,
+            (byte) 0xFF, (byte) 0xD9};
+
+    private static final byte[] APP0 = segment(0xE0, bytes("JFIF\0\1\1\0\0\1\0\1\0\0"));
+    private static final byte[] ICC = segment(0xE2, bytes("ICC_PROFILE\0\1\1profile"));
+    private static final byte[] XMP = segment(0xE1, bytes("http://ns.adobe.com/xap/1.0/\0<x:xmpmeta/>"));
+    private static final byte[] IPTC = segment(0xED, bytes("Photoshop 3.0\0iptc"));
+    private static final byte[] COMMENT = segment(0xFE, bytes("comment"));
+
+    @Test
+    void keepsOnlyOrientationFromExif() throws IOException {
+        byte[] jpeg = concat(SOI, exif(ByteOrder.LITTLE_ENDIAN, 6), DQT, SCAN);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(JpegMetadataStripper.strip(new ByteArrayInputStream(jpeg), out));
+
+        assertArrayEquals(concat(SOI, minimalExif(6), DQT, SCAN), out.toByteArray());
+    }
+
+    @Test
+    void readsBigEndianOrientation() throws IOException {
+        byte[] jpeg = concat(SOI, exif(ByteOrder.BIG_ENDIAN, 8), SCAN);
+
+        assertArrayEquals(concat(SOI, minimalExif(8), SCAN), strip(jpeg));
+    }
+
+    @Test
+    void dropsExifWithNormalOrientation() throws IOException {
+        byte[] jpeg = concat(SOI, exif(ByteOrder.LITTLE_ENDIAN, 1), DQT, SCAN);
+
+        assertArrayEquals(concat(SOI, DQT, SCAN), strip(jpeg));
+    }
+
+    @Test
+    void dropsCorruptedExif() throws IOException {
+        byte[] jpeg = concat(SOI, segment(0xE1, bytes("Exif\0\0II*\0\377\377\377\377")), SCAN);
+
+        assertArrayEquals(concat(SOI, SCAN), strip(jpeg));
+    }
+
+    @Test
+    void dropsXmpIptcAndComments() throws IOException {
+        byte[] jpeg = concat(SOI, APP0, XMP, IPTC, COMMENT, DQT, SCAN);
+
+        assertArrayEquals(concat(SOI, APP0, DQT, SCAN), strip(jpeg));
+    }
+
+    @Test
+    void keepsJfifAndIccProfile() throws IOException {
+        byte[] jpeg = concat(SOI, APP0, ICC, DQT, SCAN);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertFalse(JpegMetadataStripper.strip(new ByteArrayInputStream(jpeg), out));
+
+        assertArrayEquals(jpeg, out.toByteArray());
+    }
+
+    @Test
+    void skipsFillBytesBeforeMarkers() throws IOException {
+        byte[] jpeg = concat(SOI, new byte[]{(byte) 0xFF, (byte) 0xFF}, COMMENT, new byte[]{(byte) 0xFF}, DQT, SCAN);
+
+        assertArrayEquals(concat(SOI, DQT, SCAN), strip(jpeg));
+    }
+
+    @Test
+    void strippedImageStillDecodes() throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB), "jpeg", encoded);
+        byte[] original = encoded.toByteArray();
+        // O comentário entra logo após o SOI
+        byte[] jpeg = concat(SOI, COMMENT, Arrays.copyOfRange(original, 2, original.length));
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(strip(jpeg)));
+
+        assertEquals(40, image.getWidth());
+        assertEquals(30, image.getHeight());
+    }
+
+    @Test
+    void rejectsNonJpeg() {
+        assertThrows(IOException.class, () -> strip(bytes("\211PNG\r\n\032\n")));
+        assertThrows(IOException.class, () -> strip(new byte[0]));
+    }
+
+    @Test
+    void rejectsTruncatedSegment() {
+        byte[] segment = concat(SOI, APP0);
+
+        assertThrows(IOException.class, () -> strip(Arrays.copyOf(segment, segment.length - 3)));
+        assertThrows(IOException.class, () -> strip(segment));
+    }
+
+    @Test
+    void rejectsInvalidSegmentLength() {
+        assertThrows(IOException.class, () -> strip(concat(SOI, new byte[]{(byte) 0xFF, (byte) 0xE0, 0, 1}, SCAN)));
+    }
+
+    @Test
+    void rejectsMissingMarker() {
+        assertThrows(IOException.class, () -> strip(concat(SOI, new byte[]{0x12, 0x34}, SCAN)));
+    }
+
+    private static byte[] strip(byte[] jpeg) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JpegMetadataStripper.strip(new ByteArrayInputStream(jpeg), out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Segmento EXIF com duas tags no IFD0, a orientação depois de outra tag, e dados após o IFD.
+     */
+    private static byte[] exif(ByteOrder order, int orientation) {
+        ByteBuffer tiff = ByteBuffer.allocate(8 + 2 + 2 * 12 + 4 + 16).order(order);
+        tiff.put(order == ByteOrder.LITTLE_ENDIAN ? bytes("II") : bytes("MM")).putShort((short) 0x2A).putInt(8);
+        tiff.putShort((short) 2);
+        // Make (ASCII) apontando para os dados após o IFD
+        tiff.putShort((short) 0x010F).putShort((short) 2).putInt(16).putInt(8 + 2 + 24 + 4);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+        tiff.put(bytes("Camera model\0\0\0\0"));
+        return segment(0xE1, concat(bytes("Exif\0\0"), tiff.array()));
+    }
+
+    private static byte[] minimalExif(int orientation) {
+        ByteBuffer tiff = ByteBuffer.allocate(26).order(ByteOrder.BIG_ENDIAN);
+        tiff.put(bytes("MM")).putShort((short) 0x2A).putInt(8);
+        tiff.putShort((short) 1);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+        return segment(0xE1, concat(bytes("Exif\0\0"), tiff.array()));
+    }
+
+    private static byte[] segment(int marker, byte[] payload) {
+        int length = payload.length + 2;
+        return concat(new byte[]{(byte) 0xFF, (byte) marker, (byte) (length >> 8), (byte) length}, payload);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
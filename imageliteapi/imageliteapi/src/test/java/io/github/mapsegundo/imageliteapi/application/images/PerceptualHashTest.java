@@ -0,0 +1,110 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerceptualHashTest {
+
+    @Test
+    void distanceCountsDifferentBits() {
+        assertEquals(0, PerceptualHash.distance(0x5L, 0x5L));
+        assertEquals(2, PerceptualHash.distance(0b1010L, 0b0110L));
+        assertEquals(64, PerceptualHash.distance(0L, -1L));
+    }
+
+    @Test
+    void horizontalGradientSetsEveryBit() {
+        assertEquals(-1L, PerceptualHash.dHash(gradient(90, 80, false)));
+        assertEquals(0L, PerceptualHash.dHash(gradient(90, 80, true)));
+    }
+
+    @Test
+    void resizedAndRecompressedCopiesStayClose() throws IOException {
+        BufferedImage original = scene(800, 600);
+        long hash = PerceptualHash.dHash(new ByteArrayInputStream(encode(original, "png")));
+
+        long resized = PerceptualHash.dHash(new ByteArrayInputStream(encode(resize(original, 200, 150), "png")));
+        long recompressed = PerceptualHash.dHash(new ByteArrayInputStream(encode(original, "jpeg")));
+
+        assertTrue(PerceptualHash.distance(hash, resized) <= 4);
+        assertTrue(PerceptualHash.distance(hash, recompressed) <= 4);
+    }
+
+    @Test
+    void differentImagesAreFarApart() throws IOException {
+        long scene = PerceptualHash.dHash(new ByteArrayInputStream(encode(scene(800, 600), "png")));
+        long gradient = PerceptualHash.dHash(new ByteArrayInputStream(encode(gradient(800, 600, true), "png")));
+
+        assertTrue(PerceptualHash.distance(scene, gradient) > 16);
+    }
+
+    @Test
+    void sampleIsSubsampled() throws IOException {
+        BufferedImage sample = PerceptualHash.readSample(new ByteArrayInputStream(encode(scene(2048, 1024), "png")));
+
+        assertEquals(256, sample.getWidth());
+        assertEquals(128, sample.getHeight());
+    }
+
+    @Test
+    void rejectsUnknownContent() {
+        assertThrows(IOException.class, () -> PerceptualHash.dHash(new ByteArrayInputStream(new byte[]{1, 2, 3})));
+    }
+
+    private static BufferedImage gradient(int width, int height, boolean descending) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            int level = 255 * x / (width - 1);
+            int gray = descending ? 255 - level : level;
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, new Color(gray, gray, gray).getRGB());
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Imagem sem áreas planas, em que blocos vizinhos com a mesma luminância deixariam bits indefinidos.
+     */
+    private static BufferedImage scene(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double u = (double) x / width;
+                double v = (double) y / height;
+                int r = (int) (127 + 120 * Math.sin(7 * u + 3 * v));
+                int g = (int) (127 + 120 * Math.sin(5 * v - 4 * u));
+                int b = (int) (127 + 120 * Math.cos(9 * u * v));
+                image.setRGB(x, y, new Color(r, g, b).getRGB());
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return resized;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
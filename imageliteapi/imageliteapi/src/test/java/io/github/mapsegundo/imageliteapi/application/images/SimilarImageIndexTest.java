@@ -0,0 +1,112 @@
+package io.github.mapsegundo.imageliteapi.application.images;
+
+import io.github.mapsegundo.imageliteapi.infra.repository.ImageRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SimilarImageIndexTest {
+
+    private final ImageRepository repository = mock(ImageRepository.class);
+    private final SimilarImageIndex index = new SimilarImageIndex(repository);
+
+    @Test
+    void findsImagesWithinDistance() {
+        index.add("a", 0L);
+        index.add("b", 0b111L);
+        index.add("c", 0xFFFFL);
+
+        assertEquals(List.of(match("a", 0), match("b", 3)), index.search(0L, 3, 10));
+        assertEquals(List.of(match("c", 0)), index.search(0xFFFFL, 0, 10));
+    }
+
+    @Test
+    void ordersByDistanceAndLimits() {
+        index.add("far", 0b1111L);
+        index.add("near", 0b1L);
+        index.add("same-b", 0L);
+        index.add("same-a", 0L);
+
+        assertEquals(List.of(match("same-a", 0), match("same-b", 0), match("near", 1)), index.search(0L, 64, 3));
+    }
+
+    @Test
+    void replacesHashOfIndexedImage() {
+        index.add("a", 0L);
+        index.add("a", 0xFF00L);
+
+        assertTrue(index.search(0L, 0, 10).isEmpty());
+        assertEquals(List.of(match("a", 0)), index.search(0xFF00L, 0, 10));
+    }
+
+    @Test
+    void removeKeepsDescendantsReachable() {
+        index.add("root", 0L);
+        index.add("child", 0b1L);
+        index.add("grandchild", 0b11L);
+
+        index.remove("root");
+        index.remove("missing");
+
+        assertEquals(List.of(match("child", 1), match("grandchild", 2)), index.search(0L, 2, 10));
+    }
+
+    @Test
+    void removeKeepsOtherImagesWithSameHash() {
+        index.add("a", 42L);
+        index.add("b", 42L);
+
+        index.remove("a");
+
+        assertEquals(List.of(match("b", 0)), index.search(42L, 0, 10));
+    }
+
+    @Test
+    void matchesLinearScan() {
+        Random random = new Random(7);
+        List<long[]> images = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // Hashes agrupados perto de poucos centros, como imagens parecidas
+            long hash = (i % 10) * 0x0123456789ABCDEFL ^ (1L << random.nextInt(64)) ^ (1L << random.nextInt(64));
+            images.add(new long[]{i, hash});
+            index.add(String.valueOf(i), hash);
+        }
+        for (int i = 0; i < 20; i++) {
+            long query = images.get(random.nextInt(images.size()))[1] ^ (1L << random.nextInt(64));
+            for (int maxDistance : new int[]{0, 2, 6, 20}) {
+                List<SimilarImageIndex.Match> expected = images.stream()
+                        .filter(image -> PerceptualHash.distance(query, image[1]) <= maxDistance)
+                        .map(image -> match(String.valueOf(image[0]), PerceptualHash.distance(query, image[1])))
+                        .sorted(Comparator.comparingInt(SimilarImageIndex.Match::getDistance)
+                                .thenComparing(SimilarImageIndex.Match::getImageId))
+                        .toList();
+
+                assertEquals(expected, index.search(query, maxDistance, Integer.MAX_VALUE));
+            }
+        }
+    }
+
+    @Test
+    void refreshReplacesIndexWithDatabaseContent() {
+        index.add("deleted-elsewhere", 0L);
+        when(repository.findPerceptualHashes()).thenReturn(List.of(
+                new Object[]{"processed-elsewhere", 1L},
+                new Object[]{"kept", 3L}));
+
+        assertEquals(2, index.refresh());
+
+        assertEquals(List.of(match("processed-elsewhere", 1), match("kept", 2)), index.search(0L, 2, 10));
+    }
+
+    private static SimilarImageIndex.Match match(String imageId, int distance) {
+        return new SimilarImageIndex.Match(imageId, distance);
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.mapsegundo.imageliteapi.application.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * As taxas são baixas o bastante para que nenhuma ficha seja reposta durante o teste.
+ */
+class RateLimiterTest {
+
+    private static final String CLIENT = "user:1";
+
+    private final RateLimiter rateLimiter = new RateLimiter(properties());
+
+    @Test
+    void rejectsAboveRequestBurst() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Duration.ZERO, rateLimiter.acquire(CLIENT, -1));
+        }
+        Duration wait = rateLimiter.acquire(CLIENT, -1);
+        assertTrue(wait.compareTo(Duration.ofSeconds(999)) > 0);
+    }
+
+    @Test
+    void bandwidthRejectionDoesNotSpendRequestToken() {
+        assertEquals(Duration.ZERO, rateLimiter.acquire(CLIENT, 1000));
+        // Sem banda: a requisição é recusada e a ficha de requisição devolvida
+        assertTrue(rateLimiter.acquire(CLIENT, 1).compareTo(Duration.ZERO) > 0);
+
+        assertEquals(Duration.ZERO, rateLimiter.acquire(CLIENT, 0));
+        assertEquals(Duration.ZERO, rateLimiter.acquire(CLIENT, 0));
+        assertTrue(rateLimiter.acquire(CLIENT, 0).compareTo(Duration.ZERO) > 0);
+    }
+
+    @Test
+    void recordedUploadPutsClientInDebt() {
+        assertEquals(Duration.ZERO, rateLimiter.acquire(CLIENT, -1));
+        rateLimiter.recordUpload(CLIENT, 1500);
+
+        assertTrue(rateLimiter.acquire(CLIENT, 0).compareTo(Duration.ZERO) > 0);
+    }
+
+    @Test
+    void clientsHaveSeparateLimits() {
+        assertEquals(Duration.ZERO, rateLimiter.acquire(CLIENT, 1000));
+        rateLimiter.recordDownload(CLIENT, 1000);
+
+        assertEquals(Duration.ZERO, rateLimiter.acquire("ip:127.0.0.1", 1000));
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRequestsPerSecond(0.001);
+        properties.setRequestBurst(3);
+        properties.setBandwidth(DataSize.ofBytes(1));
+        properties.setBandwidthBurst(DataSize.ofBytes(1000));
+        return properties;
+    }
+}
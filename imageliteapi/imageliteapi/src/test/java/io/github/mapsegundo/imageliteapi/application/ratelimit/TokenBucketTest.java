@@ -0,0 +1,94 @@
+package io.github.mapsegundo.imageliteapi.application.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * O balde é testado com um relógio manual: 10 fichas por segundo (uma a cada 100 ms) e capacidade 5.
+ */
+class TokenBucketTest {
+
+    private static final long TOKEN_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final TokenBucket bucket = new TokenBucket(10, 5, clock::get);
+
+    @Test
+    void acceptsBurstUpToCapacity() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryConsume(1));
+        }
+        // Sem fichas: a espera é o tempo de reposição de uma ficha
+        assertEquals(TOKEN_NANOS, bucket.tryConsume(1));
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        assertEquals(0, bucket.tryConsume(5));
+
+        clock.addAndGet(TOKEN_NANOS / 2);
+        assertEquals(TOKEN_NANOS / 2, bucket.tryConsume(1));
+
+        clock.addAndGet(TOKEN_NANOS / 2);
+        assertEquals(0, bucket.tryConsume(1));
+        assertEquals(TOKEN_NANOS, bucket.tryConsume(1));
+    }
+
+    @Test
+    void neverRefillsAboveCapacity() {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        assertEquals(0, bucket.tryConsume(5));
+        assertEquals(TOKEN_NANOS, bucket.tryConsume(1));
+    }
+
+    @Test
+    void rejectedRequestDoesNotConsume() {
+        assertEquals(0, bucket.tryConsume(4));
+        assertEquals(2 * TOKEN_NANOS, bucket.tryConsume(3));
+        assertEquals(0, bucket.tryConsume(1));
+    }
+
+    @Test
+    void requestAboveCapacityIsAcceptedWhenFullAndLeavesDebt() {
+        assertEquals(0, bucket.tryConsume(8));
+
+        // Débito de 3 fichas: o balde só aceita de novo depois de repô-las
+        assertEquals(3 * TOKEN_NANOS, bucket.tryConsume(0));
+        assertEquals(4 * TOKEN_NANOS, bucket.tryConsume(1));
+
+        clock.addAndGet(3 * TOKEN_NANOS);
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(TOKEN_NANOS, bucket.tryConsume(1));
+    }
+
+    @Test
+    void forcedConsumptionLeavesDebt() {
+        bucket.consume(7);
+
+        assertEquals(2 * TOKEN_NANOS, bucket.tryConsume(0));
+        clock.addAndGet(2 * TOKEN_NANOS);
+        assertEquals(0, bucket.tryConsume(0));
+    }
+
+    @Test
+    void refundReturnsTokens() {
+        assertEquals(0, bucket.tryConsume(5));
+        bucket.refund(2);
+
+        assertEquals(0, bucket.tryConsume(2));
+        assertEquals(TOKEN_NANOS, bucket.tryConsume(1));
+    }
+
+    @Test
+    void refundNeverExceedsCapacity() {
+        bucket.refund(3);
+
+        assertEquals(0, bucket.tryConsume(5));
+        assertEquals(TOKEN_NANOS, bucket.tryConsume(1));
+    }
+}
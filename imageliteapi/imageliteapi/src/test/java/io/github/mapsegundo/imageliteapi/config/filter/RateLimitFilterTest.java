@@ -0,0 +1,65 @@
+package io.github.mapsegundo.imageliteapi.config.filter;
+
+import io.github.mapsegundo.imageliteapi.application.ratelimit.RateLimitProperties;
+import io.github.mapsegundo.imageliteapi.application.ratelimit.RateLimiter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitFilterTest {
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @Test
+    void retryAfterIsRoundedUpToWholeSeconds() {
+        assertEquals(1, RateLimitFilter.retryAfterSeconds(Duration.ofNanos(1)));
+        assertEquals(1, RateLimitFilter.retryAfterSeconds(Duration.ofMillis(1000)));
+        assertEquals(2, RateLimitFilter.retryAfterSeconds(Duration.ofMillis(1001)));
+    }
+
+    @Test
+    void chunkedUploadIsChargedAfterTheBodyIsRead() throws Exception {
+        properties.setBandwidth(DataSize.ofBytes(1));
+        properties.setBandwidthBurst(DataSize.ofBytes(100));
+        RateLimitFilter filter = new RateLimitFilter(new RateLimiter(properties));
+
+        FilterChain readBody = (request, response) -> request.getInputStream().readAllBytes();
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(chunkedUpload(new byte[500]), accepted, readBody);
+        assertEquals(HttpStatus.OK.value(), accepted.getStatus());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request(), rejected, (request, response) -> { });
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        assertEquals("400", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/images");
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    /**
+     * A requisição simulada informa o tamanho do conteúdo definido; um envio em partes não o conhece.
+     */
+    private static MockHttpServletRequest chunkedUpload(byte[] content) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/images") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setRemoteAddr("10.0.0.1");
+        request.setContent(content);
+        return request;
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.mapsegundo.imageliteapi.infra.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Remoção LRU dos derivados. Com limite de 1 KB e derivados de 600 bytes, cabe apenas um por vez.
+ */
+class DerivativeCacheTest {
+
+    private static final int DERIVATIVE_SIZE = 600;
+
+    @TempDir
+    Path variants;
+
+    @Test
+    void evictedDerivativeStaysReadable() throws IOException {
+        DerivativeCache cache = new DerivativeCache(variants.toString(), DataSize.ofKilobytes(1));
+        byte[] a = content(1);
+
+        Resource first = cache.getOrCreate("a", out -> out.write(a));
+        cache.getOrCreate("b", out -> out.write(content(2)));
+
+        assertFalse(Files.exists(variants.resolve("a")));
+        try (InputStream in = first.getInputStream()) {
+            assertArrayEquals(a, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void derivativeRemovedOutsideCacheIsRegenerated() throws IOException {
+        DerivativeCache cache = new DerivativeCache(variants.toString(), DataSize.ofKilobytes(1));
+        cache.getOrCreate("a", out -> out.write(content(1)));
+        Files.delete(variants.resolve("a"));
+
+        byte[] regenerated = content(3);
+        Resource resource = cache.getOrCreate("a", out -> out.write(regenerated));
+
+        assertTrue(Files.exists(variants.resolve("a")));
+        assertArrayEquals(regenerated, resource.getContentAsByteArray());
+    }
+
+    private static byte[] content(int value) {
+        byte[] bytes = new byte[DERIVATIVE_SIZE];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+}
@@ -0,0 +1,240 @@
+package io.github.mapsegundo.imageliteapi.infra.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recuperação do índice na inicialização e compactação dos segmentos. Com segmentos de 1 KB e blobs
+ * de 200 bytes (245 com o cabeçalho), cada segmento guarda quatro blobs.
+ */
+class SegmentBlobStoreTest {
+
+    private static final int HEADER_BYTES = 45;
+    private static final int BLOB_SIZE = 200;
+    private static final int RECORD_SIZE = HEADER_BYTES + BLOB_SIZE;
+
+    @TempDir
+    Path storage;
+
+    private SegmentBlobStore store;
+
+    @AfterEach
+    void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void reopenRebuildsIndex() throws IOException {
+        store = open();
+        byte[] a = content(1);
+        byte[] b = content(2);
+        String keyA = put(a);
+        String keyB = put(b);
+        String keyC = put(content(3));
+        store.delete(keyC);
+
+        reopen();
+
+        assertArrayEquals(a, read(keyA));
+        assertArrayEquals(b, read(keyB));
+        assertFalse(store.exists(keyC));
+    }
+
+    @Test
+    void tornTailRecordIsDiscardedAndOverwritten() throws IOException {
+        store = open();
+        byte[] a = content(1);
+        String keyA = put(a);
+        String keyB = put(content(2));
+        store.close();
+
+        // Gravação interrompida: o final do conteúdo do último registro não chegou ao disco
+        overwrite(segment(1), RECORD_SIZE + HEADER_BYTES + BLOB_SIZE / 2, new byte[BLOB_SIZE / 2]);
+        store = open();
+
+        assertArrayEquals(a, read(keyA));
+        assertFalse(store.exists(keyB));
+
+        // O próximo registro é gravado no lugar do registro incompleto
+        byte[] c = content(3);
+        String keyC = put(c);
+        reopen();
+
+        assertArrayEquals(a, read(keyA));
+        assertArrayEquals(c, read(keyC));
+    }
+
+    @Test
+    void truncatedHeaderIsDiscarded() throws IOException {
+        store = open();
+        byte[] a = content(1);
+        String keyA = put(a);
+        String keyB = put(content(2));
+        store.close();
+
+        try (FileChannel channel = FileChannel.open(segment(1), StandardOpenOption.WRITE)) {
+            channel.truncate(RECORD_SIZE + HEADER_BYTES / 2);
+        }
+        store = open();
+
+        assertArrayEquals(a, read(keyA));
+        assertFalse(store.exists(keyB));
+
+        // O segmento truncado não tem espaço para novos registros, que vão para um novo segmento
+        byte[] c = content(3);
+        String keyC = put(c);
+        reopen();
+
+        assertArrayEquals(c, read(keyC));
+        assertTrue(Files.exists(segment(2)));
+    }
+
+    @Test
+    void crcMismatchStopsTheScan() throws IOException {
+        store = open();
+        byte[] a = content(1);
+        String keyA = put(a);
+        String keyB = put(content(2));
+        String keyC = put(content(3));
+        store.close();
+
+        overwrite(segment(1), RECORD_SIZE + HEADER_BYTES + 10, new byte[]{(byte) ~content(2)[10]});
+        store = open();
+
+        assertArrayEquals(a, read(keyA));
+        assertFalse(store.exists(keyB));
+        // Os registros após o corrompido também são descartados
+        assertFalse(store.exists(keyC));
+    }
+
+    @Test
+    void tombstoneHidesRecordInOlderSegment() throws IOException {
+        store = open();
+        String keyA = put(content(1));
+        put(content(2));
+        put(content(3));
+        byte[] d = content(4);
+        String keyD = put(d);
+        // O segmento 1 está cheio, então o registro de exclusão vai para o segmento 2
+        store.delete(keyA);
+        assertTrue(Files.exists(segment(2)));
+
+        reopen();
+
+        assertFalse(store.exists(keyA));
+        assertArrayEquals(d, read(keyD));
+    }
+
+    @Test
+    void compactionRewritesLiveRecordsAndDeletesTheSegment() throws IOException {
+        store = open();
+        String keyA = put(content(1));
+        String keyB = put(content(2));
+        String keyC = put(content(3));
+        byte[] d = content(4);
+        String keyD = put(d);
+        byte[] e = content(5);
+        String keyE = put(e);
+        store.delete(keyA);
+        store.delete(keyB);
+        store.delete(keyC);
+
+        store.compact();
+
+        assertFalse(Files.exists(segment(1)));
+        assertArrayEquals(d, read(keyD));
+        assertArrayEquals(e, read(keyE));
+
+        reopen();
+
+        assertFalse(store.exists(keyA));
+        assertFalse(store.exists(keyB));
+        assertFalse(store.exists(keyC));
+        assertArrayEquals(d, read(keyD));
+        assertArrayEquals(e, read(keyE));
+    }
+
+    @Test
+    void compactionKeepsTombstonesForOlderSegments() throws IOException {
+        store = open();
+        String keyA = put(content(1));
+        byte[] b = content(2);
+        String keyB = put(b);
+        put(content(3));
+        put(content(4));
+        // Segmento 2: a exclusão de A e três blobs excluídos logo depois
+        store.delete(keyA);
+        String keyE = put(content(5));
+        String keyF = put(content(6));
+        String keyG = put(content(7));
+        store.delete(keyE);
+        store.delete(keyF);
+        store.delete(keyG);
+        // Segmento 3 passa a ser o ativo
+        byte[] h = content(8);
+        String keyH = put(h);
+        assertTrue(Files.exists(segment(3)));
+
+        store.compact();
+
+        assertTrue(Files.exists(segment(1)));
+        assertFalse(Files.exists(segment(2)));
+
+        reopen();
+
+        assertFalse(store.exists(keyA));
+        assertArrayEquals(b, read(keyB));
+        assertArrayEquals(h, read(keyH));
+    }
+
+    private SegmentBlobStore open() {
+        return new SegmentBlobStore(new LocalFileSystemBlobStore(storage.toString()),
+                storage.resolve("segments").toString(), DataSize.ofBytes(256), DataSize.ofKilobytes(1), 0.5);
+    }
+
+    private void reopen() {
+        store.close();
+        store = open();
+    }
+
+    private Path segment(int id) {
+        return storage.resolve("segments").resolve("segment-%06d.seg".formatted(id));
+    }
+
+    private String put(byte[] content) {
+        return store.put(new ByteArrayInputStream(content));
+    }
+
+    private byte[] read(String key) throws IOException {
+        return store.get(key).orElseThrow().getContentAsByteArray();
+    }
+
+    private static byte[] content(int seed) {
+        byte[] content = new byte[BLOB_SIZE];
+        new Random(seed).nextBytes(content);
+        return content;
+    }
+
+    private static void overwrite(Path file, long position, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+}